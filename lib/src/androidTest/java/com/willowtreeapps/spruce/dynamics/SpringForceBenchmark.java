@@ -0,0 +1,188 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Times one frame of many springs on the same configuration, through the cached spring function
+ * of {@link SpringForce} and through the spring function as it was worked out before the cache,
+ * with a {@link Math#pow(double, double)} per term on every call. Results are logged under
+ * {@link #TAG}.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class SpringForceBenchmark {
+
+    private static final String TAG = "SpringForceBenchmark";
+
+    // A staggered grid of children, stepped for a second at 60 Hz.
+    private static final int CHILDREN = 200;
+    private static final int FRAMES = 60;
+    private static final int WARMUP_RUNS = 5;
+    private static final int RUNS = 10;
+
+    private float sink;
+
+    @Test
+    public void cachedFrameIsCheaperUnderdamped() {
+        assertCachedFrameIsCheaper(SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY);
+    }
+
+    @Test
+    public void cachedFrameIsCheaperCriticallyDamped() {
+        assertCachedFrameIsCheaper(SpringForce.DAMPING_RATIO_NO_BOUNCY);
+    }
+
+    @Test
+    public void cachedFrameIsCheaperOverdamped() {
+        assertCachedFrameIsCheaper(1.5f);
+    }
+
+    private void assertCachedFrameIsCheaper(float dampingRatio) {
+        SpringForce spring = new SpringForce(100)
+                .setStiffness(SpringForce.STIFFNESS_MEDIUM)
+                .setDampingRatio(dampingRatio);
+        LegacySpring legacy = new LegacySpring(spring.mNaturalFreq, dampingRatio, 100);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            runCached(spring);
+            runLegacy(legacy);
+        }
+        long cachedNanos = Long.MAX_VALUE;
+        long legacyNanos = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            cachedNanos = Math.min(cachedNanos, runCached(spring));
+            legacyNanos = Math.min(legacyNanos, runLegacy(legacy));
+        }
+
+        Log.i(TAG, "damping ratio " + dampingRatio + ": cached " + cachedNanos / FRAMES
+                + " ns per frame, legacy " + legacyNanos / FRAMES + " ns per frame"
+                + " (" + sink + ")");
+        assertTrue("cached " + cachedNanos + " ns, legacy " + legacyNanos + " ns",
+                cachedNanos < legacyNanos);
+    }
+
+    private long runCached(SpringForce spring) {
+        float value = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            long frameTime = 16 + (frame & 1);
+            for (int child = 0; child < CHILDREN; child++) {
+                SpruceDynamics.MassState state = spring.updateValues(child, -child, frameTime);
+                value += state.mValue + state.mVelocity;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += value;
+        return elapsed;
+    }
+
+    private long runLegacy(LegacySpring spring) {
+        float value = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            long frameTime = 16 + (frame & 1);
+            for (int child = 0; child < CHILDREN; child++) {
+                value += spring.updateValues(child, -child, frameTime) + spring.mVelocity;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += value;
+        return elapsed;
+    }
+
+    /**
+     * The spring function as {@link SpringForce} evaluated it on every call before it was cached
+     * per frame time.
+     */
+    private static final class LegacySpring {
+        private final double mNaturalFreq;
+        private final double mDampingRatio;
+        private final double mFinalPosition;
+        private double mGammaPlus;
+        private double mGammaMinus;
+        private double mDampedFreq;
+        float mVelocity;
+
+        LegacySpring(double naturalFreq, double dampingRatio, double finalPosition) {
+            mNaturalFreq = naturalFreq;
+            mDampingRatio = dampingRatio;
+            mFinalPosition = finalPosition;
+            if (dampingRatio > 1) {
+                mGammaPlus = -dampingRatio * naturalFreq
+                        + naturalFreq * Math.sqrt(dampingRatio * dampingRatio - 1);
+                mGammaMinus = -dampingRatio * naturalFreq
+                        - naturalFreq * Math.sqrt(dampingRatio * dampingRatio - 1);
+            } else if (dampingRatio >= 0 && dampingRatio < 1) {
+                mDampedFreq = naturalFreq * Math.sqrt(1 - dampingRatio * dampingRatio);
+            }
+        }
+
+        float updateValues(double lastDisplacement, double lastVelocity, long timeElapsed) {
+            double deltaT = timeElapsed / 1000d;
+            lastDisplacement -= mFinalPosition;
+            double displacement;
+            double currentVelocity;
+            if (mDampingRatio > 1) {
+                double coeffA = lastDisplacement - (mGammaMinus * lastDisplacement - lastVelocity)
+                        / (mGammaMinus - mGammaPlus);
+                double coeffB = (mGammaMinus * lastDisplacement - lastVelocity)
+                        / (mGammaMinus - mGammaPlus);
+                displacement = coeffA * Math.pow(Math.E, mGammaMinus * deltaT)
+                        + coeffB * Math.pow(Math.E, mGammaPlus * deltaT);
+                currentVelocity = coeffA * mGammaMinus * Math.pow(Math.E, mGammaMinus * deltaT)
+                        + coeffB * mGammaPlus * Math.pow(Math.E, mGammaPlus * deltaT);
+            } else if (mDampingRatio == 1) {
+                double coeffA = lastDisplacement;
+                double coeffB = lastVelocity + mNaturalFreq * lastDisplacement;
+                displacement = (coeffA + coeffB * deltaT)
+                        * Math.pow(Math.E, -mNaturalFreq * deltaT);
+                currentVelocity = (coeffA + coeffB * deltaT)
+                        * Math.pow(Math.E, -mNaturalFreq * deltaT) * -mNaturalFreq
+                        + coeffB * Math.pow(Math.E, -mNaturalFreq * deltaT);
+            } else {
+                double cosCoeff = lastDisplacement;
+                double sinCoeff = (1 / mDampedFreq) * (mDampingRatio * mNaturalFreq
+                        * lastDisplacement + lastVelocity);
+                displacement = Math.pow(Math.E, -mDampingRatio * mNaturalFreq * deltaT)
+                        * (cosCoeff * Math.cos(mDampedFreq * deltaT)
+                        + sinCoeff * Math.sin(mDampedFreq * deltaT));
+                currentVelocity = displacement * -mNaturalFreq * mDampingRatio
+                        + Math.pow(Math.E, -mDampingRatio * mNaturalFreq * deltaT)
+                        * (-mDampedFreq * cosCoeff * Math.sin(mDampedFreq * deltaT)
+                        + mDampedFreq * sinCoeff * Math.cos(mDampedFreq * deltaT));
+            }
+            mVelocity = (float) currentVelocity;
+            return (float) (displacement + mFinalPosition);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.animation.PropertyValuesHolder;
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.util.Property;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plays {@link ObjectAnimator}s on every child from a single clock, instead of cloning each
+ * animator for each child. Every prototype gets one evaluator, a {@link ValueAnimator} holding
+ * copies of its values that never has a target, so it is set up once rather than for every
+ * child. On each frame the evaluator is seeked to each child's own play time, which is the
+ * clock's play time minus the child's start delay, and its values are written to the child
+ * through the view's properties. Children that are waiting for their delay or have finished are
+ * skipped, so a frame only touches the children that are moving.
+ *
+ * <p>Because the values are worked out once for all children, prototypes must animate float
+ * properties of the view with start values that don't depend on the child. A prototype with only
+ * an end value reads its start value from each child, so it is cloned for every child
+ * instead.</p>
+ *
+ * <p>The prototypes themselves never run, so none of their listeners would be called. A prototype
+ * with {@link Animator.AnimatorListener}s is cloned for every child instead, so each clone calls
+ * them as before. Update and pause listeners can't be looked up on an animator, so they are
+ * silently not called for prototypes played from the clock.</p>
+ */
+final class SharedClock extends AnimatorListenerAdapter
+        implements ValueAnimator.AnimatorUpdateListener {
+
+    // Float properties of a view, by the name object animators give them.
+    private static final Map<String, Property<View, Float>> VIEW_PROPERTIES = new HashMap<>();
+
+    static {
+        addViewProperties(View.ALPHA, View.TRANSLATION_X, View.TRANSLATION_Y, View.X, View.Y,
+                View.ROTATION, View.ROTATION_X, View.ROTATION_Y, View.SCALE_X, View.SCALE_Y);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            addViewProperties(View.TRANSLATION_Z, View.Z);
+        }
+    }
+
+    private final ValueAnimator[] evaluators;
+    // Name of each value of each evaluator, and the property of the view it's written to.
+    private final String[][] propertyNames;
+    private final Property<View, Float>[][] properties;
+    private final long[] durations;
+    // Play time each evaluator was last seeked to, -1 before the first frame.
+    private final long[] evaluatedTimes;
+    private final View[] views;
+    private final long[] startDelays;
+    // Play time last applied for each child and animator, -1 before the first frame.
+    private final long[] appliedTimes;
+    private final long totalDuration;
+    private final ValueAnimator clock;
+
+    /**
+     * @param prototypes animators to play on every child, each accepted by
+     *                   {@link #canPlay(Object, View[])}
+     * @param views children to animate
+     * @param startDelays start delay of each child
+     */
+    @SuppressWarnings("unchecked")
+    SharedClock(List<ObjectAnimator> prototypes, View[] views, long[] startDelays) {
+        this.views = views;
+        this.startDelays = startDelays;
+        evaluators = new ValueAnimator[prototypes.size()];
+        propertyNames = new String[evaluators.length][];
+        properties = new Property[evaluators.length][];
+        durations = new long[evaluators.length];
+        evaluatedTimes = new long[evaluators.length];
+        long longestDuration = 0;
+        for (int i = 0; i < evaluators.length; i++) {
+            ObjectAnimator prototype = prototypes.get(i);
+            evaluators[i] = createEvaluator(prototype);
+            PropertyValuesHolder[] values = evaluators[i].getValues();
+            propertyNames[i] = new String[values.length];
+            properties[i] = new Property[values.length];
+            for (int j = 0; j < values.length; j++) {
+                propertyNames[i][j] = values[j].getPropertyName();
+                properties[i][j] = VIEW_PROPERTIES.get(propertyNames[i][j]);
+            }
+            durations[i] = prototype.getDuration();
+            longestDuration = Math.max(longestDuration, durations[i]);
+        }
+        long longestDelay = 0;
+        for (long startDelay : startDelays) {
+            longestDelay = Math.max(longestDelay, startDelay);
+        }
+        appliedTimes = new long[views.length * evaluators.length];
+        Arrays.fill(appliedTimes, -1);
+        Arrays.fill(evaluatedTimes, -1);
+        totalDuration = longestDelay + longestDuration;
+
+        clock = ValueAnimator.ofFloat(0f, 1f);
+        clock.setDuration(totalDuration);
+        clock.setInterpolator(new LinearInterpolator());
+        clock.addUpdateListener(this);
+        clock.addListener(this);
+    }
+
+    /**
+     * Whether the prototype can be played from a shared clock. Other animators are cloned for
+     * every child as before.
+     *
+     * @param prototype animator passed to {@link Spruce.SpruceBuilder#animateWith(Object...)}
+     * @param views children the prototype would be played on
+     * @return true for object animators without listeners that play once, animate float properties
+     * of the view and start from the same values on every child
+     */
+    static boolean canPlay(Object prototype, View[] views) {
+        if (!(prototype instanceof ObjectAnimator)
+                || ((ObjectAnimator) prototype).getRepeatCount() != 0) {
+            return false;
+        }
+        ObjectAnimator objectAnimator = (ObjectAnimator) prototype;
+        List<Animator.AnimatorListener> listeners = objectAnimator.getListeners();
+        if (listeners != null && !listeners.isEmpty()) {
+            return false;
+        }
+        ValueAnimator evaluator = createEvaluator(objectAnimator);
+        evaluator.setCurrentPlayTime(0);
+        PropertyValuesHolder[] values = evaluator.getValues();
+        if (values == null || values.length == 0) {
+            return false;
+        }
+        // Copy that reads any missing start value from a child, made for the first child that
+        // isn't already at the evaluated start.
+        ObjectAnimator probe = null;
+        for (PropertyValuesHolder value : values) {
+            String propertyName = value.getPropertyName();
+            Property<View, Float> property = VIEW_PROPERTIES.get(propertyName);
+            Object start = evaluator.getAnimatedValue(propertyName);
+            if (property == null || !(start instanceof Float)) {
+                return false;
+            }
+            for (View view : views) {
+                if (property.get(view).equals(start)) {
+                    continue;
+                }
+                if (probe == null) {
+                    probe = objectAnimator.clone();
+                    probe.setStartDelay(0);
+                    probe.setTarget(view);
+                    probe.setCurrentPlayTime(0);
+                }
+                if (!start.equals(probe.getAnimatedValue(propertyName))) {
+                    return false;
+                }
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the animator that drives every child, to be played like any other animator
+     */
+    ValueAnimator getClock() {
+        return clock;
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        Arrays.fill(appliedTimes, -1);
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        long playTime = Math.round(animation.getAnimatedFraction() * totalDuration);
+        for (int i = 0; i < evaluators.length; i++) {
+            ValueAnimator evaluator = evaluators[i];
+            String[] names = propertyNames[i];
+            Property<View, Float>[] viewProperties = properties[i];
+            for (int child = 0; child < views.length; child++) {
+                long time = Math.max(0, Math.min(playTime - startDelays[child], durations[i]));
+                int slot = child * evaluators.length + i;
+                if (appliedTimes[slot] == time) {
+                    continue;
+                }
+                appliedTimes[slot] = time;
+                if (evaluatedTimes[i] != time) {
+                    evaluatedTimes[i] = time;
+                    evaluator.setCurrentPlayTime(time);
+                }
+                View view = views[child];
+                for (int j = 0; j < names.length; j++) {
+                    viewProperties[j].set(view, (Float) evaluator.getAnimatedValue(names[j]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes an animator that works out the prototype's values without a target, so it is only
+     * set up once.
+     */
+    private static ValueAnimator createEvaluator(ObjectAnimator prototype) {
+        PropertyValuesHolder[] values = prototype.getValues();
+        int count = values == null ? 0 : values.length;
+        PropertyValuesHolder[] copies = new PropertyValuesHolder[count];
+        for (int i = 0; i < copies.length; i++) {
+            copies[i] = values[i].clone();
+        }
+        ValueAnimator evaluator = new ValueAnimator();
+        evaluator.setValues(copies);
+        evaluator.setDuration(prototype.getDuration());
+        evaluator.setInterpolator(prototype.getInterpolator());
+        return evaluator;
+    }
+
+    @SafeVarargs
+    private static void addViewProperties(Property<View, Float>... properties) {
+        for (Property<View, Float> property : properties) {
+            VIEW_PROPERTIES.put(property.getName(), property);
+        }
+    }
+
+}
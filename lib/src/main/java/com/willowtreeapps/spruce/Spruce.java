@@ -24,6 +24,9 @@ package com.willowtreeapps.spruce;
 
 import android.animation.Animator;
 import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.animation.ValueAnimator;
+import android.graphics.Rect;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.Interpolator;
@@ -33,14 +36,18 @@ import androidx.annotation.NonNull;
 
 import com.willowtreeapps.spruce.dynamics.SpruceDynamics;
 import com.willowtreeapps.spruce.dynamics.DynamicAnimatorSet;
-import com.willowtreeapps.spruce.dynamics.SpruceFlingAnimation;
+import com.willowtreeapps.spruce.dynamics.DynamicsPool;
+import com.willowtreeapps.spruce.dynamics.FloatPropertyCompat;
+import com.willowtreeapps.spruce.dynamics.SpringBatch;
 import com.willowtreeapps.spruce.dynamics.SpruceSpringAnimation;
 import com.willowtreeapps.spruce.exclusion.ExclusionHelper;
 import com.willowtreeapps.spruce.sort.SortFunction;
 import com.willowtreeapps.spruce.sort.SpruceTimedView;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Spruce {
 
@@ -62,88 +69,230 @@ public class Spruce {
                 animators,
                 sortFunction,
                 builder.exclusionHelper,
-                builder.interpolator);
+                builder.interpolator,
+                builder.sharedClock,
+                builder.visibleChildrenOnly,
+                builder.recycleDynamics,
+                builder.batchSprings);
     }
 
     private void getAnimatorSetForSort(Object[] animators, SortFunction sortFunction,
                                        ExclusionHelper exclusionHelper,
-                                       Interpolator interpolator) {
+                                       Interpolator interpolator,
+                                       boolean sharedClock,
+                                       boolean visibleChildrenOnly,
+                                       boolean recycleDynamics,
+                                       boolean batchSprings) {
         List<SpruceTimedView> childrenWithTime;
 
         // starts the filtering process
         List<View> children = exclusionHelper.filterViews(viewGroup);
+        if (visibleChildrenOnly) {
+            children = snapHiddenChildren(children, animators);
+        }
 
-        sortFunction.sortChildren(viewGroup, children);
-        childrenWithTime = sortFunction.getViewListWithTimeOffsets(viewGroup, children);
+        childrenWithTime = sortFunction.sortWithTimeOffsets(viewGroup, children);
         AnimatorSet animatorSet = new AnimatorSet();
         DynamicAnimatorSet dynamicAnimatorSet = new DynamicAnimatorSet();
         animator = new SpruceAnimator();
         List<Animator> animatorsList = new ArrayList<>();
         List<SpruceDynamics<?>> dynamicAnimatorsList = new ArrayList<>();
+        List<View> dynamicTargets = new ArrayList<>();
 
-        //This max value is used to the time of interpolation.
-        float maxTimeOffset = childrenWithTime.get(childrenWithTime.size() - 1).getTimeOffset();
+        // Start delay of each child, shared by all of its animators.
+        long[] startDelays = getStartDelays(childrenWithTime, interpolator);
 
-        for (SpruceTimedView childView : childrenWithTime) {
+        View[] childViews = new View[childrenWithTime.size()];
+        for (int i = 0; i < childViews.length; i++) {
+            childViews[i] = childrenWithTime.get(i).getView();
+        }
+
+        // Object animators played from one clock rather than cloned for every child.
+        List<ObjectAnimator> clockedAnimators = new ArrayList<>();
+        if (sharedClock) {
+            for (Object animatorChild : animators) {
+                if (SharedClock.canPlay(animatorChild, childViews)) {
+                    clockedAnimators.add((ObjectAnimator) animatorChild);
+                }
+            }
+        }
+        // Spring animations played on every child from one batch rather than copied.
+        List<SpruceSpringAnimation> batchedSprings = new ArrayList<>();
+        if (batchSprings) {
+            for (Object animatorChild : animators) {
+                if (animatorChild instanceof SpruceSpringAnimation) {
+                    batchedSprings.add((SpruceSpringAnimation) animatorChild);
+                }
+            }
+        }
+
+        for (int i = 0; i < childrenWithTime.size(); i++) {
+            SpruceTimedView childView = childrenWithTime.get(i);
             for (Object animatorChild : animators) {
                 sanityCheck(animatorChild);
-                if (animatorChild instanceof Animator) {
+                if (clockedAnimators.contains(animatorChild)
+                        || batchedSprings.contains(animatorChild)) {
+                    continue;
+                } else if (animatorChild instanceof Animator) {
                     Animator animatorCopy = ((Animator) animatorChild).clone();
                     animatorCopy.setTarget(childView.getView());
-                    // Seeks to the initial position
-                    animatorCopy.end();
-                    // Core logic of the interpolation.
-                    animatorCopy.setStartDelay((long) (maxTimeOffset
-                            * interpolator.getInterpolation(childView.getTimeOffset() / maxTimeOffset)));
+                    animatorCopy.setStartDelay(startDelays[i]);
                     animatorCopy.setDuration(((Animator) animatorChild).getDuration());
                     animatorsList.add(animatorCopy);
-                } else if (animatorChild instanceof SpruceSpringAnimation) {
-                    SpruceSpringAnimation animation = ((SpruceSpringAnimation) animatorChild);
-                    // Cloning Spring Animation.
-                    SpruceSpringAnimation animationClone = new SpruceSpringAnimation(childView.getView(), animation.getAnimationProperty(),
-                            animation.getSpring().getFinalPosition()).setStartValue(animation.mValue);
-                    animationClone.setSpring(animation.getSpring());
-                    animationClone.setMinValue(animation.mMinValue);
-                    animationClone.setMaxValue(animation.mMaxValue);
-                    // Setting start delay
-                    animationClone.setStartDelay((long) (maxTimeOffset
-                            * interpolator.getInterpolation(childView.getTimeOffset() / maxTimeOffset)));
-                    dynamicAnimatorsList.add(animationClone);
-                    // seeking the animation to first frame
-                    animation.getAnimationProperty().setValue(childView.getView(), animation.mValue);
-                } else if (animatorChild instanceof SpruceFlingAnimation) {
-                    SpruceFlingAnimation animation = ((SpruceFlingAnimation) animatorChild);
-                    // Cloning Spring Animation.
-                    SpruceFlingAnimation animationClone = new SpruceFlingAnimation(childView.getView(), animation.getAnimationProperty())
-                            .setStartValue(animation.mValue);
-                    animationClone.setMaxValue(animation.mMaxValue);
-                    animationClone.setMinValue(animation.mMinValue);
-                    animationClone.setFriction(animation.getFriction());
-                    animationClone.setStartVelocity(animation.mVelocity);
-                    // Setting start delay
-                    animationClone.setStartDelay((long) (maxTimeOffset
-                            * interpolator.getInterpolation(childView.getTimeOffset() / maxTimeOffset)));
-                    dynamicAnimatorsList.add(animationClone);
-                    // seeking the animation to first frame
-                    animation.getAnimationProperty().setValue(childView.getView(), animation.mValue);
                 } else if (animatorChild instanceof SpruceDynamics<?>) {
-                    //TODO: handle this in the future.
+                    // Copying the dynamic animation, whatever force drives it. Only runs that
+                    // recycle their animations take them from the pool.
+                    SpruceDynamics<?> prototype = (SpruceDynamics<?>) animatorChild;
+                    SpruceDynamics<?> animationCopy = recycleDynamics
+                            ? DynamicsPool.getInstance().obtain(prototype, childView.getView())
+                            : prototype.copy(childView.getView());
+                    // Setting start delay
+                    animationCopy.setStartDelay(startDelays[i]);
+                    dynamicAnimatorsList.add(animationCopy);
+                    dynamicTargets.add(childView.getView());
                 }
             }
 
         }
 
+        if (!clockedAnimators.isEmpty()) {
+            animatorsList.add(new SharedClock(clockedAnimators, childViews, startDelays).getClock());
+        }
+        List<SpringBatch> springBatches = new ArrayList<>();
+        for (SpruceSpringAnimation spring : batchedSprings) {
+            springBatches.add(new SpringBatch(spring, childViews, startDelays));
+        }
+
         // Queueing Animations.
         dynamicAnimatorSet.playTogether(dynamicAnimatorsList);
+        if (recycleDynamics) {
+            dynamicAnimatorSet.recycleOnEnd(DynamicsPool.getInstance());
+        }
         animatorSet.playTogether(animatorsList);
 
-        //Playing Animations.
-        dynamicAnimatorSet.start();
-        animatorSet.start();
-
         //Providing the user all the animations for the ease of cancelling and starting.
         animator.setAnimatorSet(animatorSet);
         animator.setDynamicAnimatorSet(dynamicAnimatorSet);
+        // Seeks every copy to its initial position, ready to be played.
+        animator.setPlan(animatorsList, dynamicAnimatorsList, dynamicTargets, springBatches,
+                recycleDynamics);
+    }
+
+    /**
+     * Computes the start delay of every child once. The interpolator reshapes the offsets over
+     * the span from 0 to the largest offset. When that span is empty, because there is a single
+     * child or every child starts at once, all children start right away.
+     *
+     * @param childrenWithTime sorted children with their time offsets
+     * @param interpolator interpolator for the animation set
+     * @return start delay of each child, in the same order
+     */
+    static long[] getStartDelays(List<SpruceTimedView> childrenWithTime, Interpolator interpolator) {
+        long[] startDelays = new long[childrenWithTime.size()];
+        float maxTimeOffset = 0;
+        for (SpruceTimedView childView : childrenWithTime) {
+            maxTimeOffset = Math.max(maxTimeOffset, childView.getTimeOffset());
+        }
+        if (maxTimeOffset <= 0) {
+            return startDelays;
+        }
+
+        for (int i = 0; i < startDelays.length; i++) {
+            // Core logic of the interpolation.
+            float fraction = Math.max(0, childrenWithTime.get(i).getTimeOffset() / maxTimeOffset);
+            startDelays[i] = (long) (maxTimeOffset * interpolator.getInterpolation(fraction));
+        }
+        return startDelays;
+    }
+
+    /**
+     * Moves the children outside the visible part of the view group straight to the end of every
+     * animation, so only the visible children are sorted and animated. When the visible part
+     * can't be determined, the bounds of the view group are used.
+     *
+     * @param children children that would be animated
+     * @param animators animators passed to the builder
+     * @return the children that are at least partly visible
+     */
+    private List<View> snapHiddenChildren(List<View> children, Object[] animators) {
+        Rect visibleRect = new Rect();
+        if (!viewGroup.getLocalVisibleRect(visibleRect)) {
+            visibleRect.set(0, 0, viewGroup.getWidth(), viewGroup.getHeight());
+        }
+
+        List<View> visibleChildren = new ArrayList<>(children.size());
+        List<View> hiddenChildren = new ArrayList<>();
+        for (View child : children) {
+            int left = Math.round(child.getX());
+            int top = Math.round(child.getY());
+            if (visibleRect.intersects(left, top, left + child.getWidth(), top + child.getHeight())) {
+                visibleChildren.add(child);
+            } else {
+                hiddenChildren.add(child);
+            }
+        }
+        if (hiddenChildren.isEmpty()) {
+            return visibleChildren;
+        }
+
+        for (Object animator : animators) {
+            sanityCheck(animator);
+            if (animator instanceof Animator) {
+                // One copy of the animator, retargeted for every hidden child.
+                Animator animatorCopy = ((Animator) animator).clone();
+                for (View child : hiddenChildren) {
+                    snapToEnd(animatorCopy, child);
+                }
+            } else if (animator instanceof SpruceDynamics<?>) {
+                snapToEnd((SpruceDynamics<?>) animator, hiddenChildren);
+            }
+        }
+        return visibleChildren;
+    }
+
+    /**
+     * Moves the children to the value a dynamic animation comes to rest at. The rest value only
+     * depends on the start value, which hidden children mostly share, so it is worked out once
+     * per distinct start value.
+     */
+    @SuppressWarnings("unchecked")
+    private static void snapToEnd(SpruceDynamics<?> animation, List<View> children) {
+        FloatPropertyCompat property = animation.getAnimationProperty();
+        Map<Float, Float> endValues = new HashMap<>();
+        for (View child : children) {
+            float startValue = animation.getStartValue(child);
+            Float endValue = endValues.get(startValue);
+            if (endValue == null) {
+                endValue = getEndValue(animation, startValue);
+                endValues.put(startValue, endValue);
+            }
+            property.setValue(child, endValue);
+        }
+    }
+
+    /**
+     * Value a dynamic animation comes to rest at from the given start value, worked out the same
+     * way a planned sequence is seeked.
+     */
+    private static float getEndValue(SpruceDynamics<?> animation, float startValue) {
+        long duration = animation.getDuration(startValue, animation.mVelocity);
+        return animation.getValueAt(startValue, animation.mVelocity, duration);
+    }
+
+    /**
+     * Applies the end state of an animator to a view. Value animators that play a fixed number of
+     * times are seeked to their end, which fires no lifecycle callbacks; anything else is ended.
+     */
+    private static void snapToEnd(Animator animator, View view) {
+        animator.setTarget(view);
+        if (animator instanceof ValueAnimator
+                && ((ValueAnimator) animator).getRepeatCount() != ValueAnimator.INFINITE) {
+            ValueAnimator valueAnimator = (ValueAnimator) animator;
+            valueAnimator.setCurrentPlayTime(valueAnimator.getDuration()
+                    * (valueAnimator.getRepeatCount() + 1));
+        } else {
+            animator.end();
+        }
     }
 
     /**
@@ -167,6 +316,10 @@ public class Spruce {
         private Object[] animators;
         private SortFunction sortFunction;
         private Interpolator interpolator = new LinearInterpolator();
+        private boolean sharedClock;
+        private boolean visibleChildrenOnly;
+        private boolean recycleDynamics;
+        private boolean batchSprings;
 
         /**
          * SpruceBuilder constructor that takes a ViewGroup
@@ -219,6 +372,65 @@ public class Spruce {
             return this;
         }
 
+        /**
+         * Plays every {@link ObjectAnimator} passed to {@link #animateWith(Object...)} from one
+         * shared clock, instead of cloning it for each child. This keeps memory and per frame work
+         * flat for large numbers of children. The animators must have explicit start and end
+         * values. Other animators, object animators that repeat and object animators with
+         * {@link Animator.AnimatorListener}s are still cloned, so their listeners are called for
+         * every child as before. Update and pause listeners are never called for animators that
+         * are played from the shared clock, so leave the clock off when you rely on them.
+         *
+         * @param sharedClock true to play object animators from a shared clock
+         * @return SpruceBuilder object
+         */
+        public SpruceBuilder useSharedClock(boolean sharedClock) {
+            this.sharedClock = sharedClock;
+            return this;
+        }
+
+        /**
+         * Only animates the children that are at least partly inside the visible part of the
+         * ViewGroup. The other children are moved straight to the end of every animation. This
+         * saves sorting and animating children that can't be seen, for instance in long
+         * scrolling containers.
+         *
+         * @param visibleChildrenOnly true to animate only the visible children
+         * @return SpruceBuilder object
+         */
+        public SpruceBuilder animateVisibleChildrenOnly(boolean visibleChildrenOnly) {
+            this.visibleChildrenOnly = visibleChildrenOnly;
+            return this;
+        }
+
+        /**
+         * Hands the dynamic animations made for every child back to the shared
+         * {@link DynamicsPool} once they have all ended, so later runs reuse them instead of
+         * allocating new ones. The sequence can then only be played once: it can't be replayed,
+         * seeked or reversed. Useful for staggers that are started often.
+         *
+         * @param recycleDynamics true to recycle the dynamic animations after one run
+         * @return SpruceBuilder object
+         */
+        public SpruceBuilder recycleDynamics(boolean recycleDynamics) {
+            this.recycleDynamics = recycleDynamics;
+            return this;
+        }
+
+        /**
+         * Plays every {@link SpruceSpringAnimation} passed to {@link #animateWith(Object...)} on
+         * all children from one {@link SpringBatch}, instead of copying it for each child. The
+         * batch keeps the state of every child in arrays and works out the spring once per frame,
+         * which keeps per frame work low for large numbers of children.
+         *
+         * @param batchSprings true to play spring animations from a batch
+         * @return SpruceBuilder object
+         */
+        public SpruceBuilder batchSprings(boolean batchSprings) {
+            this.batchSprings = batchSprings;
+            return this;
+        }
+
         /**
          * Apply one to many animations to the ViewGroup
          *
@@ -231,14 +443,28 @@ public class Spruce {
         }
 
         /**
-         * Creates a Spruce instance and starts the sequence of animations
+         * Creates a Spruce instance and builds the sequence of animations without starting it.
+         * The children are moved to the first frame of their animations. Call
+         * {@link SpruceAnimator#play()} to play the sequence, as many times as needed.
          *
          * @return SpruceAnimator The object is a wrapper that contains
          * both native and {@link SpruceSpringAnimation}
          */
-        public SpruceAnimator start() {
+        public SpruceAnimator prepare() {
             Spruce spruce = new Spruce(this);
             return spruce.animator;
         }
+
+        /**
+         * Creates a Spruce instance and starts the sequence of animations
+         *
+         * @return SpruceAnimator The object is a wrapper that contains
+         * both native and {@link SpruceSpringAnimation}
+         */
+        public SpruceAnimator start() {
+            SpruceAnimator animator = prepare();
+            animator.play();
+            return animator;
+        }
     }
 }
@@ -1,16 +1,94 @@
 package com.willowtreeapps.spruce;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.view.View;
+import android.view.animation.AnimationUtils;
+import android.view.animation.LinearInterpolator;
 
 import com.willowtreeapps.spruce.dynamics.DynamicAnimatorSet;
+import com.willowtreeapps.spruce.dynamics.SpringBatch;
+import com.willowtreeapps.spruce.dynamics.SpruceDynamics;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This is a wrapper class for holding animation set and {@link DynamicAnimatorSet}
+ * <p>
+ * The copies made for every child are kept, so the same sequence can be played again with
+ * {@link #play()} without sorting or copying anything. The same copies can be seeked with
+ * {@link #setCurrentPlayTime(long)} or {@link #setCurrentFraction(float)}, for example to follow a
+ * gesture, and played backwards with {@link #reverse()}, so one plan serves both an entrance and
+ * an exit.
+ * <p>
+ * Every play or reverse is a run, which ends once the animator set and every dynamic animation
+ * have ended. The end of a run is reported to {@link OnSequenceEndListener}s and through the
+ * {@link SpruceFuture} from {@link #getFuture()}.
  */
 public class SpruceAnimator {
+
+    /**
+     * Receives a single notification when every animation of a run has ended.
+     */
+    public interface OnSequenceEndListener {
+        /**
+         * Notifies the end of a run. This is called when every animation finished, and also
+         * when the run was canceled.
+         *
+         * @param animator the sequence whose run ended
+         * @param canceled whether the run was canceled before every animation finished
+         */
+        void onSequenceEnd(SpruceAnimator animator, boolean canceled);
+    }
+
+    // Below O a value animator that was seeked starts without waiting for its start delay, and an
+    // animator set starts its children straight away, so the copies it plays are never seeked.
+    private static final boolean CAN_SEEK_PLAYED_COPIES =
+            Build.VERSION.SDK_INT >= Build.VERSION_CODES.O;
+
     private AnimatorSet animatorSet = new AnimatorSet();
     private DynamicAnimatorSet dynamicAnimatorSet = new DynamicAnimatorSet();
 
+    // Copies made for every child, and the values the dynamic animations start from.
+    private Animator[] animators = new Animator[0];
+    // Seeked in place of each animator copy, the copy itself where that's safe.
+    private Animator[] seekedAnimators = new Animator[0];
+    private SpruceDynamics<?>[] dynamics = new SpruceDynamics<?>[0];
+    private View[] dynamicTargets = new View[0];
+    private float[] dynamicStartValues = new float[0];
+    private float[] dynamicStartVelocities = new float[0];
+    private long[] dynamicDurations = new long[0];
+    // Spring animations played on many children at once.
+    private SpringBatch[] springBatches = new SpringBatch[0];
+    // Whether the copies have left their first frame, through a play or a seek.
+    private boolean needsReset;
+    // Whether a one shot plan has been played, and its dynamic animations handed back.
+    private boolean recycled;
+    // Whether the dynamic animations go back to a pool after the first play.
+    private boolean oneShot;
+
+    // Length of the whole sequence, worked out the first time it's needed.
+    private long totalDuration = -1;
+    // Time the animator set was started at, or -1 when the sequence was last seeked instead.
+    private long playStartTime = -1;
+    // Play time the sequence was last seeked to.
+    private long currentPlayTime;
+    // Drives the sequence backwards while reversing, made once and re-armed for every reverse.
+    private ValueAnimator reverseClock;
+
+    private final ArrayList<OnSequenceEndListener> endListeners = new ArrayList<>();
+    private final EndCounter endCounter = new EndCounter();
+    // Animator sets, clocks, dynamic animations and batches of the current run that haven't
+    // ended.
+    private int pendingEnds;
+    private boolean runCanceled;
+    // Handle on the current or next run, made when asked for.
+    private SpruceFuture future;
+
     public AnimatorSet getAnimatorSet() {
         return animatorSet;
     }
@@ -27,19 +105,390 @@ public class SpruceAnimator {
         this.dynamicAnimatorSet = dynamicAnimatorSet;
     }
 
+    /**
+     * Keeps the copies made for every child and moves every child to its first frame.
+     *
+     * @param animators animator copies in the animator set
+     * @param dynamics dynamic animation copies in the dynamic animator set
+     * @param dynamicTargets view animated by each dynamic animation copy
+     * @param springBatches spring animations played on every child from a batch
+     * @param oneShot whether the dynamic animation copies are recycled after the first play
+     */
+    void setPlan(List<Animator> animators, List<SpruceDynamics<?>> dynamics,
+                 List<View> dynamicTargets, List<SpringBatch> springBatches, boolean oneShot) {
+        this.oneShot = oneShot;
+        animatorSet.addListener(endCounter);
+        for (SpruceDynamics<?> dynamic : dynamics) {
+            dynamic.addEndListener(endCounter);
+        }
+        for (SpringBatch batch : springBatches) {
+            batch.setEndListener(endCounter);
+        }
+        this.springBatches = springBatches.toArray(new SpringBatch[0]);
+        this.animators = animators.toArray(new Animator[0]);
+        seekedAnimators = getSeekedAnimators(this.animators);
+        this.dynamics = dynamics.toArray(new SpruceDynamics<?>[0]);
+        this.dynamicTargets = dynamicTargets.toArray(new View[0]);
+        dynamicStartValues = new float[this.dynamics.length];
+        dynamicStartVelocities = new float[this.dynamics.length];
+        for (int i = 0; i < this.dynamics.length; i++) {
+            dynamicStartValues[i] = this.dynamics[i].getStartValue();
+            dynamicStartVelocities[i] = this.dynamics[i].mVelocity;
+        }
+        needsReset = false;
+        recycled = false;
+        totalDuration = -1;
+        playStartTime = -1;
+        currentPlayTime = 0;
+        seekToStart();
+    }
+
     /**
      * cancels all the animation that are presently performed.
      */
     public void cancel() {
+        if (reverseClock != null) {
+            reverseClock.cancel();
+        }
         animatorSet.cancel();
         dynamicAnimatorSet.cancel();
+        for (SpringBatch batch : springBatches) {
+            batch.cancel();
+        }
     }
 
     /**
-     * starts all the animations that are queued.
+     * Cancels the run the handle belongs to, if it is still the current one.
+     *
+     * @param run handle on the run to cancel
      */
-    public void start() {
+    void cancel(SpruceFuture run) {
+        if (future == run) {
+            cancel();
+        }
+    }
+
+    /**
+     * Plays the sequence from the start. When it has been played before, the running animations
+     * are canceled and every child is moved back to its first frame first.
+     */
+    public void play() {
+        checkNotRecycled();
+        if (needsReset) {
+            cancel();
+            seekToStart();
+        }
+        needsReset = true;
+        recycled = oneShot;
+        playStartTime = AnimationUtils.currentAnimationTimeMillis();
+        beginRun((animators.length > 0 ? 1 : 0) + dynamics.length + springBatches.length);
         animatorSet.start();
         dynamicAnimatorSet.start();
+        for (SpringBatch batch : springBatches) {
+            batch.start();
+        }
+        if (oneShot) {
+            // The copies are handed to other runs once they end, so only the set keeps them.
+            dynamics = new SpruceDynamics<?>[0];
+            dynamicTargets = new View[0];
+        }
+    }
+
+    /**
+     * starts all the animations that are queued.
+     */
+    public void start() {
+        play();
+    }
+
+    /**
+     * Returns the length of the whole sequence, from the start of the first child to the end of
+     * the last one. Dynamic animations are measured from their start value and velocity.
+     *
+     * @return duration of the sequence, in milliseconds
+     */
+    public long getTotalDuration() {
+        if (totalDuration < 0) {
+            totalDuration = 0;
+            for (Animator animator : animators) {
+                totalDuration = Math.max(totalDuration,
+                        animator.getStartDelay() + getActiveDuration(animator));
+            }
+            dynamicDurations = new long[dynamics.length];
+            for (int i = 0; i < dynamics.length; i++) {
+                dynamicDurations[i] = dynamics[i].getDuration(dynamicStartValues[i],
+                        dynamicStartVelocities[i]);
+                totalDuration = Math.max(totalDuration,
+                        dynamics[i].getStartDelay() + dynamicDurations[i]);
+            }
+            for (SpringBatch batch : springBatches) {
+                totalDuration = Math.max(totalDuration, batch.getDuration());
+            }
+        }
+        return totalDuration;
+    }
+
+    /**
+     * @return time into the sequence, whether it's playing, reversing or was seeked
+     */
+    public long getCurrentPlayTime() {
+        if (playStartTime >= 0) {
+            long elapsed = AnimationUtils.currentAnimationTimeMillis() - playStartTime;
+            return Math.min(getTotalDuration(), elapsed);
+        }
+        return currentPlayTime;
+    }
+
+    /**
+     * Moves every child to where it is the given time into the sequence. Anything playing is
+     * canceled first. Value animators are seeked and dynamic animations are evaluated at their
+     * own play time, so no lifecycle callbacks fire. Other animators can't be seeked and are left
+     * as they are.
+     *
+     * @param playTime time into the sequence, in milliseconds
+     */
+    public void setCurrentPlayTime(long playTime) {
+        checkNotRecycled();
+        cancel();
+        seek(playTime);
+    }
+
+    /**
+     * Moves every child to where it is at the given fraction of the sequence, see
+     * {@link #setCurrentPlayTime(long)}.
+     *
+     * @param fraction fraction of the {@link #getTotalDuration() total duration}, from 0 to 1
+     */
+    public void setCurrentFraction(float fraction) {
+        fraction = Math.max(0f, Math.min(1f, fraction));
+        setCurrentPlayTime(Math.round(fraction * getTotalDuration()));
+    }
+
+    /**
+     * Plays the sequence backwards from where it is now to its start, so the children leave in
+     * the reverse order they arrived in. Every frame seeks the whole sequence, like
+     * {@link #setCurrentPlayTime(long)}.
+     */
+    public void reverse() {
+        checkNotRecycled();
+        long playTime = getCurrentPlayTime();
+        cancel();
+        seek(playTime);
+        if (playTime == 0) {
+            beginRun(0);
+            return;
+        }
+        if (reverseClock == null) {
+            reverseClock = new ValueAnimator();
+            reverseClock.setInterpolator(new LinearInterpolator());
+            reverseClock.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    seek(Math.round((Float) animation.getAnimatedValue()));
+                }
+            });
+            reverseClock.addListener(endCounter);
+        }
+        reverseClock.setFloatValues(playTime, 0f);
+        reverseClock.setDuration(playTime);
+        beginRun(1);
+        reverseClock.start();
+    }
+
+    /**
+     * Adds a listener notified at the end of every run.
+     *
+     * @param listener the listener to add
+     * @return this animator
+     */
+    public SpruceAnimator addEndListener(OnSequenceEndListener listener) {
+        if (!endListeners.contains(listener)) {
+            endListeners.add(listener);
+        }
+        return this;
+    }
+
+    /**
+     * @param listener the listener to remove
+     */
+    public void removeEndListener(OnSequenceEndListener listener) {
+        endListeners.remove(listener);
+    }
+
+    /**
+     * Returns a handle that completes when the current run ends, or the next one when nothing is
+     * playing.
+     *
+     * @return handle on the run
+     */
+    public SpruceFuture getFuture() {
+        if (future == null) {
+            future = new SpruceFuture(this);
+        }
+        return future;
+    }
+
+    /**
+     * Starts counting the ends of a run.
+     *
+     * @param ends number of animator sets, clocks, dynamic animations and batches in the run
+     */
+    private void beginRun(int ends) {
+        pendingEnds = ends;
+        runCanceled = false;
+        if (ends == 0) {
+            endRun();
+        }
+    }
+
+    private void endRun() {
+        // Listeners may start the next run, so the state of this one is read first.
+        boolean canceled = runCanceled;
+        SpruceFuture ended = future;
+        future = null;
+        if (ended != null) {
+            ended.complete(canceled);
+        }
+        for (int i = 0; i < endListeners.size(); i++) {
+            endListeners.get(i).onSequenceEnd(this, canceled);
+        }
+    }
+
+    /**
+     * Counts the ends of the animator set, the reverse clock, the dynamic animations and the
+     * spring batches, without allocating anything per run.
+     */
+    private class EndCounter extends AnimatorListenerAdapter
+            implements SpruceDynamics.OnAnimationEndListener, SpringBatch.OnBatchEndListener {
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            if (pendingEnds > 0) {
+                runCanceled = true;
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            countEnd();
+        }
+
+        @Override
+        public void onAnimationEnd(SpruceDynamics animation, boolean canceled, float value,
+                                   float velocity) {
+            if (canceled && pendingEnds > 0) {
+                runCanceled = true;
+            }
+            countEnd();
+        }
+
+        @Override
+        public void onBatchEnd(SpringBatch batch, boolean canceled) {
+            if (canceled && pendingEnds > 0) {
+                runCanceled = true;
+            }
+            countEnd();
+        }
+
+        private void countEnd() {
+            if (pendingEnds > 0 && --pendingEnds == 0) {
+                endRun();
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the sequence was played once and its dynamic animations
+     *                               recycled
+     */
+    private void checkNotRecycled() {
+        if (recycled) {
+            throw new IllegalStateException("This sequence recycles its dynamic animations and"
+                    + " can only be played once");
+        }
+    }
+
+    /**
+     * Writes every copy's state the given time into the sequence to its view.
+     */
+    @SuppressWarnings("unchecked")
+    private void seek(long playTime) {
+        playTime = Math.max(0, Math.min(getTotalDuration(), playTime));
+        for (Animator animator : seekedAnimators) {
+            if (animator instanceof ValueAnimator) {
+                long time = Math.max(0, playTime - animator.getStartDelay());
+                ((ValueAnimator) animator).setCurrentPlayTime(
+                        Math.min(time, getActiveDuration(animator)));
+            }
+        }
+        for (int i = 0; i < dynamics.length; i++) {
+            long time = Math.min(playTime - dynamics[i].getStartDelay(), dynamicDurations[i]);
+            float value = dynamics[i].getValueAt(dynamicStartValues[i], dynamicStartVelocities[i],
+                    time);
+            dynamics[i].getAnimationProperty().setValue(dynamicTargets[i], value);
+        }
+        for (SpringBatch batch : springBatches) {
+            batch.seek(playTime);
+        }
+        // The next play has to start over.
+        needsReset = true;
+        playStartTime = -1;
+        currentPlayTime = playTime;
+    }
+
+    /**
+     * Duration of an animator after its start delay, counting every repeat. Animators that
+     * repeat forever are taken to play once.
+     */
+    private static long getActiveDuration(Animator animator) {
+        if (animator instanceof ValueAnimator) {
+            int repeatCount = ((ValueAnimator) animator).getRepeatCount();
+            if (repeatCount != ValueAnimator.INFINITE) {
+                return animator.getDuration() * (repeatCount + 1);
+            }
+        }
+        return animator.getDuration();
+    }
+
+    /**
+     * Returns the animators to seek for the given copies. From O these are the copies. Below O
+     * every value animator copy gets a clone, which writes to the same target and update
+     * listeners, so seeking never leaves a seek fraction on the copies the animator set plays.
+     */
+    private static Animator[] getSeekedAnimators(Animator[] animators) {
+        if (CAN_SEEK_PLAYED_COPIES) {
+            return animators;
+        }
+        Animator[] seekedAnimators = new Animator[animators.length];
+        for (int i = 0; i < animators.length; i++) {
+            seekedAnimators[i] = animators[i] instanceof ValueAnimator
+                    ? animators[i].clone() : animators[i];
+        }
+        return seekedAnimators;
+    }
+
+    /**
+     * Writes the first frame of every copy to its view. Value animators are seeked to their
+     * first frame, which fires no lifecycle callbacks. Other animators can't be seeked and are
+     * ended instead. Dynamic animations and spring batches get their start value and velocity
+     * back.
+     */
+    @SuppressWarnings("unchecked")
+    private void seekToStart() {
+        for (Animator animator : seekedAnimators) {
+            if (animator instanceof ValueAnimator) {
+                ((ValueAnimator) animator).setCurrentPlayTime(0);
+            } else {
+                animator.end();
+            }
+        }
+        for (int i = 0; i < dynamics.length; i++) {
+            dynamics[i].setStartValue(dynamicStartValues[i]);
+            dynamics[i].setStartVelocity(dynamicStartVelocities[i]);
+            dynamics[i].getAnimationProperty().setValue(dynamicTargets[i], dynamicStartValues[i]);
+        }
+        for (SpringBatch batch : springBatches) {
+            batch.seek(0);
+        }
     }
 }
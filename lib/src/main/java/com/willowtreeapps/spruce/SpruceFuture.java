@@ -0,0 +1,146 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Handle on one run of a {@link SpruceAnimator}, which completes once every animation of the run
+ * has ended. Its result is true when every animation finished and false when the run was
+ * canceled, for instance by {@link SpruceAnimator#cancel()} or by playing it again.
+ * <p>
+ * Runs end on the main thread, so {@link #get()} must only be called from other threads. On the
+ * main thread, use {@link SpruceAnimator#addEndListener(SpruceAnimator.OnSequenceEndListener)}
+ * instead.
+ */
+public final class SpruceFuture implements Future<Boolean> {
+
+    private final SpruceAnimator animator;
+    private boolean done;
+    private boolean cancelled;
+    private boolean finished;
+
+    SpruceFuture(SpruceAnimator animator) {
+        this.animator = animator;
+    }
+
+    /**
+     * Cancels the run, like {@link SpruceAnimator#cancel()}. The handle is done as soon as this
+     * returns true. Off the main thread, the animations are canceled on its next loop instead,
+     * unless the run has ended by then.
+     *
+     * @param mayInterruptIfRunning ignored, the run is always stopped where it is
+     * @return false if the run had already ended
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            done = true;
+            notifyAll();
+        }
+        Looper mainLooper = Looper.getMainLooper();
+        if (Looper.myLooper() == mainLooper) {
+            animator.cancel(this);
+        } else {
+            new Handler(mainLooper).post(new Runnable() {
+                @Override
+                public void run() {
+                    animator.cancel(SpruceFuture.this);
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public synchronized Boolean get() throws InterruptedException {
+        checkNotBlockingMainThread();
+        while (!done) {
+            wait();
+        }
+        return getResult();
+    }
+
+    @Override
+    public synchronized Boolean get(long timeout, TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        checkNotBlockingMainThread();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!done) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return getResult();
+    }
+
+    /**
+     * Completes the handle when the run ends, unless it was canceled already.
+     *
+     * @param canceled whether the run was canceled
+     */
+    synchronized void complete(boolean canceled) {
+        if (done) {
+            return;
+        }
+        done = true;
+        finished = !canceled;
+        notifyAll();
+    }
+
+    private Boolean getResult() {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        return finished;
+    }
+
+    private void checkNotBlockingMainThread() {
+        if (!done && Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("Waiting on the main thread would block the run"
+                    + " from ever ending");
+        }
+    }
+}
@@ -30,7 +30,6 @@ import android.view.Choreographer
 import androidx.annotation.RequiresApi
 import androidx.annotation.RestrictTo
 import androidx.annotation.VisibleForTesting
-import androidx.collection.SimpleArrayMap
 import com.willowtreeapps.spruce.dynamics.AnimationHandler.FrameCallbackScheduler
 import java.util.*
 
@@ -95,6 +94,19 @@ class AnimationHandler
         val isCurrentThread: Boolean
     }
 
+    /**
+     * Implemented by a [FrameCallbackScheduler] that knows the time of the frame it runs the
+     * callback for, such as the vsync time Choreographer reports. Every animation of the frame is
+     * then stepped to that time. Without it, the handler reads the clock when the frame runs.
+     */
+    interface FrameTimeProvider {
+        /**
+         * Time of the frame the scheduler is running the callback for, in nanoseconds, in the
+         * [SystemClock.uptimeMillis] time base. 0 when no frame has run yet.
+         */
+        val frameTimeNanos: Long
+    }
+
     /**
      * This class is responsible for interacting with the available frame provider by either
      * registering frame callback or posting runnable, and receiving a callback for when a
@@ -106,20 +118,43 @@ class AnimationHandler
          * Notifies all the on-going animations of the new frame.
          */
         fun  /* synthetic access */dispatchAnimationFrame() {
-            mCurrentFrameTime = SystemClock.uptimeMillis()
+            mFramePosted = false
+            mCurrentFrameTime = getFrameTime()
             doAnimationFrame(mCurrentFrameTime)
-            if (mAnimationCallbacks.size > 0) {
-                scheduler.postFrameCallback(mRunnable)
+            if (hasCallbacks()) {
+                postFrame()
             }
         }
     }
 
+    /**
+     * A callback waiting for its start delay to pass.
+     */
+    private class DelayedCallback(
+            val callback: AnimationFrameCallback,
+            val startTime: Long,
+            val order: Long)
+
     /**
      * Internal per-thread collections used to avoid set collisions as animations start and end
-     * while being processed.
+     * while being processed. Removed callbacks leave a null in mAnimationCallbacks until the list
+     * is cleaned up after the frame, and mCallbackIndices maps every active callback to its slot,
+     * so adding and removing a callback doesn't search the list.
      */
-    private val mDelayedCallbackStartTime = SimpleArrayMap<AnimationFrameCallback, Long>()
     /* synthetic access */ val mAnimationCallbacks = ArrayList<AnimationFrameCallback?>()
+    private val mCallbackIndices = IdentityHashMap<AnimationFrameCallback, Int>()
+
+    /**
+     * Callbacks waiting for their start delay, earliest start first. They only join
+     * mAnimationCallbacks once their start time has passed, so a frame never looks at callbacks
+     * that aren't due. Entries that were replaced or removed stay in the queue and are skipped
+     * when they come up, or dropped all at once when they outnumber the waiting callbacks, see
+     * [dropRemovedEntries]. mDelayedCallbackEntries holds the current entry of every waiting
+     * callback.
+     */
+    private val mDelayedCallbacks = PriorityQueue(INITIAL_QUEUE_CAPACITY, DELAY_ORDER)
+    private val mDelayedCallbackEntries = IdentityHashMap<AnimationFrameCallback, DelayedCallback>()
+    private var mDelayedCallbackOrder: Long = 0
     /* synthetic access */private val mCallbackDispatcher = AnimationCallbackDispatcher()
     /* synthetic access */private val mRunnable = Runnable { mCallbackDispatcher.dispatchAnimationFrame() }
 
@@ -132,19 +167,27 @@ class AnimationHandler
      */
     var mCurrentFrameTime: /* synthetic access */Long = 0
     private var mListDirty = false
+    private var mFramePosted = false
 
     /**
      * Register to get a callback on the next frame after the delay.
      */
     fun addAnimationFrameCallback(callback: AnimationFrameCallback, delay: Long) {
-        if (mAnimationCallbacks.size == 0) {
-            scheduler.postFrameCallback(mRunnable)
-        }
-        if (!mAnimationCallbacks.contains(callback)) {
-            mAnimationCallbacks.add(callback)
-        }
+        postFrame()
         if (delay > 0) {
-            mDelayedCallbackStartTime.put(callback, SystemClock.uptimeMillis() + delay)
+            removeActiveCallback(callback)
+            val entry = DelayedCallback(callback, SystemClock.uptimeMillis() + delay,
+                    mDelayedCallbackOrder++)
+            val replaced = mDelayedCallbackEntries.put(callback, entry)
+            mDelayedCallbacks.add(entry)
+            if (replaced != null) {
+                dropRemovedEntries()
+            }
+        } else {
+            if (mDelayedCallbackEntries.remove(callback) != null) {
+                dropRemovedEntries()
+            }
+            addActiveCallback(callback)
         }
     }
 
@@ -153,21 +196,23 @@ class AnimationHandler
      * timing.
      */
     fun removeCallback(callback: AnimationFrameCallback?) {
-        mDelayedCallbackStartTime.remove(callback)
-        val id = mAnimationCallbacks.indexOf(callback)
-        if (id >= 0) {
-            mAnimationCallbacks[id] = null
-            mListDirty = true
+        if (callback == null) {
+            return
+        }
+        if (mDelayedCallbackEntries.remove(callback) != null) {
+            dropRemovedEntries()
         }
+        removeActiveCallback(callback)
     }
 
     fun  /* synthetic access */doAnimationFrame(frameTime: Long) {
-        val currentTime = SystemClock.uptimeMillis()
-        for (i in mAnimationCallbacks.indices) {
+        // Start delays are judged by the frame time too, so all callbacks agree on the time.
+        startDueCallbacks(frameTime)
+        // Callbacks added while the frame is dispatched get their first frame next time.
+        val count = mAnimationCallbacks.size
+        for (i in 0 until count) {
             val callback = mAnimationCallbacks[i] ?: continue
-            if (isCallbackDue(callback, currentTime)) {
-                callback.doAnimationFrame(frameTime)
-            }
+            callback.doAnimationFrame(frameTime)
         }
         cleanUpList()
     }
@@ -182,27 +227,104 @@ class AnimationHandler
         get() = scheduler.isCurrentThread
 
     /**
-     * Remove the callbacks from mDelayedCallbackStartTime once they have passed the initial delay
-     * so that they can start getting frame callbacks.
-     *
-     * @return true if they have passed the initial delay or have no delay, false otherwise.
+     * Returns the time of the frame being dispatched, from the scheduler when it knows it.
      */
-    private fun isCallbackDue(callback: AnimationFrameCallback, currentTime: Long): Boolean {
-        val startTime = mDelayedCallbackStartTime[callback] ?: return true
-        if (startTime < currentTime) {
-            mDelayedCallbackStartTime.remove(callback)
-            return true
+    private fun getFrameTime(): Long {
+        val scheduler = scheduler
+        if (scheduler is FrameTimeProvider) {
+            val frameTimeNanos = scheduler.frameTimeNanos
+            if (frameTimeNanos > 0) {
+                return frameTimeNanos / NANOS_PER_MS
+            }
         }
-        return false
+        return SystemClock.uptimeMillis()
     }
 
+    private fun hasCallbacks(): Boolean {
+        return mCallbackIndices.isNotEmpty() || mDelayedCallbackEntries.isNotEmpty()
+    }
+
+    /**
+     * Asks the scheduler for the next frame, unless it has been asked already.
+     */
+    private fun postFrame() {
+        if (!mFramePosted) {
+            mFramePosted = true
+            scheduler.postFrameCallback(mRunnable)
+        }
+    }
+
+    private fun addActiveCallback(callback: AnimationFrameCallback) {
+        if (!mCallbackIndices.containsKey(callback)) {
+            mCallbackIndices[callback] = mAnimationCallbacks.size
+            mAnimationCallbacks.add(callback)
+        }
+    }
+
+    private fun removeActiveCallback(callback: AnimationFrameCallback) {
+        val id = mCallbackIndices.remove(callback) ?: return
+        mAnimationCallbacks[id] = null
+        mListDirty = true
+    }
+
+    /**
+     * Moves the callbacks that have passed their initial delay from mDelayedCallbacks to
+     * mAnimationCallbacks so that they can start getting frame callbacks.
+     */
+    private fun startDueCallbacks(currentTime: Long) {
+        while (true) {
+            val entry = mDelayedCallbacks.peek() ?: return
+            if (mDelayedCallbackEntries[entry.callback] !== entry) {
+                // Removed, or added again with another delay.
+                mDelayedCallbacks.poll()
+                continue
+            }
+            if (entry.startTime >= currentTime) {
+                return
+            }
+            mDelayedCallbacks.poll()
+            mDelayedCallbackEntries.remove(entry.callback)
+            addActiveCallback(entry.callback)
+        }
+    }
+
+    /**
+     * Drops the entries of removed or replaced callbacks from mDelayedCallbacks once there are
+     * more of them than waiting callbacks. Canceling and replaying a long stagger would otherwise
+     * keep the old entries, and the animations they hold, until their start times pass.
+     */
+    private fun dropRemovedEntries() {
+        val waiting = mDelayedCallbackEntries.size
+        if (waiting == 0) {
+            mDelayedCallbacks.clear()
+        } else if (mDelayedCallbacks.size - waiting > Math.max(waiting, MIN_REMOVED_ENTRIES)) {
+            mDelayedCallbacks.removeAll { mDelayedCallbackEntries[it.callback] !== it }
+        }
+    }
+
+    /**
+     * Number of entries in the queue of delayed callbacks, including the entries of removed
+     * callbacks that haven't been dropped yet. Used in testing only.
+     *
+     * @hide
+     */
+    @get:VisibleForTesting
+    @get:RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    val queuedCallbackCount: Int
+        get() = mDelayedCallbacks.size
+
     private fun cleanUpList() {
         if (mListDirty) {
-            for (i in mAnimationCallbacks.indices.reversed()) {
-                if (mAnimationCallbacks[i] == null) {
-                    mAnimationCallbacks.removeAt(i)
+            var size = 0
+            for (i in mAnimationCallbacks.indices) {
+                val callback = mAnimationCallbacks[i] ?: continue
+                if (size != i) {
+                    mAnimationCallbacks[size] = callback
+                    mCallbackIndices[callback] = size
                 }
+                size++
             }
+            mAnimationCallbacks.subList(size, mAnimationCallbacks.size).clear()
             mListDirty = false
         }
     }
@@ -212,11 +334,19 @@ class AnimationHandler
      */
     @RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
     @VisibleForTesting
-    internal class FrameCallbackScheduler16 : FrameCallbackScheduler {
+    internal class FrameCallbackScheduler16 : FrameCallbackScheduler, FrameTimeProvider {
         private val mChoreographer = Choreographer.getInstance()
         private val mLooper = Looper.myLooper()
+        override var frameTimeNanos: Long = 0
+            private set
+
         override fun postFrameCallback(frameCallback: Runnable) {
-            mChoreographer.postFrameCallback { time: Long -> frameCallback.run() }
+            mChoreographer.postFrameCallback { time: Long ->
+                // Vsync time of the frame, in the System.nanoTime() time base that
+                // SystemClock.uptimeMillis() shares.
+                frameTimeNanos = time
+                frameCallback.run()
+            }
         }
 
         override val isCurrentThread: Boolean
@@ -228,9 +358,11 @@ class AnimationHandler
      * a Runnable to the main thread Handler with a delay.
      */
     @VisibleForTesting
-    internal class FrameCallbackScheduler14 : FrameCallbackScheduler {
+    internal class FrameCallbackScheduler14 : FrameCallbackScheduler, FrameTimeProvider {
         private val mHandler = Handler(Looper.myLooper()!!)
         private var mLastFrameTime: Long = 0
+        override val frameTimeNanos: Long
+            get() = mLastFrameTime * NANOS_PER_MS
         override fun postFrameCallback(frameCallback: Runnable) {
             var delay = FRAME_DELAY_MS - (SystemClock.uptimeMillis() - mLastFrameTime)
             delay = Math.max(delay, 0)
@@ -246,6 +378,14 @@ class AnimationHandler
 
     companion object {
         private const val FRAME_DELAY_MS: Long = 10
+        private const val NANOS_PER_MS: Long = 1000000
+        private const val INITIAL_QUEUE_CAPACITY = 16
+        // Removed entries the delay queue can hold before they're dropped, so few removals
+        // don't rebuild it.
+        private const val MIN_REMOVED_ENTRIES = 32
+        // Earliest start time first, and callbacks with the same start time in the order they
+        // were added.
+        private val DELAY_ORDER = compareBy<DelayedCallback>({ it.startTime }, { it.order })
         private val sAnimatorHandler = ThreadLocal<AnimationHandler?>()
         @JvmStatic
         val instance: AnimationHandler?
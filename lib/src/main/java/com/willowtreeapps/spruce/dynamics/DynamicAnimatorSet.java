@@ -32,6 +32,25 @@ public class DynamicAnimatorSet {
 
     private List<SpruceDynamics<?>> anim = new ArrayList<>();
 
+    // Pool the animations go back to once they have all ended, if any.
+    private DynamicsPool pool;
+    // Number of animations that haven't ended since the set was started.
+    private int running;
+
+    private final SpruceDynamics.OnAnimationEndListener recycler =
+            new SpruceDynamics.OnAnimationEndListener() {
+                @Override
+                public void onAnimationEnd(SpruceDynamics animation, boolean canceled,
+                                           float value, float velocity) {
+                    if (--running == 0) {
+                        for (SpruceDynamics<?> ended : anim) {
+                            pool.release(ended);
+                        }
+                        anim = new ArrayList<>();
+                    }
+                }
+            };
+
     /**
      * Sets up this AnimatorSet to play all of the supplied animations at the same time.
      *
@@ -41,6 +60,16 @@ public class DynamicAnimatorSet {
         anim = items;
     }
 
+    /**
+     * Hands every animation back to the given pool once they have all ended or been canceled,
+     * after which the set is empty. Meant for sets that are played once.
+     *
+     * @param pool pool to release the animations to
+     */
+    public void recycleOnEnd(DynamicsPool pool) {
+        this.pool = pool;
+    }
+
     /**
      * This method is used to cancel the animation.
      */
@@ -55,6 +84,12 @@ public class DynamicAnimatorSet {
      * This method is used to start all queued dynamic animations.
      */
     public void start() {
+        if (pool != null && running == 0) {
+            running = anim.size();
+            for (SpruceDynamics<?> anim : anim) {
+                anim.addEndListener(recycler);
+            }
+        }
         for (SpruceDynamics<?> anim : anim) {
             anim.start();
         }
@@ -0,0 +1,126 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Keeps dynamic animations that have finished, so later runs can reuse them instead of copying
+ * their prototype again. The pool holds a bounded number of animations of each class and, like
+ * the animations themselves, is only used from the main thread.
+ */
+public final class DynamicsPool {
+
+    /**
+     * Number of animations of each class the shared pool keeps.
+     */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final DynamicsPool INSTANCE = new DynamicsPool(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+    private final HashMap<Class<?>, ArrayList<SpruceDynamics<?>>> pools = new HashMap<>();
+
+    /**
+     * @return the pool shared by every Spruce run
+     */
+    public static DynamicsPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param maxSize number of animations of each class to keep
+     */
+    public DynamicsPool(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Pool size can't be negative");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets an animation that animates the given object like the prototype. A pooled animation of
+     * the same class is reused when there is one; otherwise the prototype is copied.
+     *
+     * @param prototype animation to match
+     * @param target the object the animation animates
+     * @return an animation that isn't running, equivalent to {@link SpruceDynamics#copy(Object)}
+     */
+    public SpruceDynamics<?> obtain(SpruceDynamics<?> prototype, Object target) {
+        ArrayList<SpruceDynamics<?>> pool = pools.get(prototype.getClass());
+        if (pool != null && !pool.isEmpty()) {
+            SpruceDynamics<?> animation = pool.remove(pool.size() - 1);
+            animation.mPooled = false;
+            if (animation.reuse(prototype, target)) {
+                return animation;
+            }
+        }
+        return prototype.copy(target);
+    }
+
+    /**
+     * Hands a finished animation back to the pool. Its target and listeners are dropped. Once
+     * released, an animation may be handed out again by {@link #obtain(SpruceDynamics, Object)},
+     * so the caller must not use it any more. Running animations, animations that are already in
+     * a pool and animations beyond the size of the pool are left alone.
+     *
+     * @param animation animation to release
+     */
+    public void release(SpruceDynamics<?> animation) {
+        if (animation.isRunning() || animation.mPooled) {
+            return;
+        }
+        ArrayList<SpruceDynamics<?>> pool = pools.get(animation.getClass());
+        if (pool == null) {
+            pool = new ArrayList<>();
+            pools.put(animation.getClass(), pool);
+        }
+        if (pool.size() < maxSize) {
+            animation.recycle();
+            animation.mPooled = true;
+            pool.add(animation);
+        }
+    }
+
+    /**
+     * @param animationClass class of the animations
+     * @return number of animations of the class in the pool
+     */
+    public int size(Class<?> animationClass) {
+        ArrayList<SpruceDynamics<?>> pool = pools.get(animationClass);
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * Drops every pooled animation.
+     */
+    public void clear() {
+        for (ArrayList<SpruceDynamics<?>> pool : pools.values()) {
+            for (SpruceDynamics<?> animation : pool) {
+                animation.mPooled = false;
+            }
+        }
+        pools.clear();
+    }
+}
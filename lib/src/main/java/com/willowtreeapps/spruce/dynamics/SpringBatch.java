@@ -0,0 +1,361 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import android.util.AndroidRuntimeException;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Plays one spring animation on many objects at once. Every object uses the same spring, so
+ * instead of one {@link SpruceSpringAnimation} per object, the batch keeps the value, velocity and
+ * final position of every object in parallel arrays and is registered as a single frame
+ * callback.
+ * <p>
+ * The spring function is linear in the displacement from the final position and the velocity.
+ * On each frame the batch works out that linear map once, with one set of exponential and trig
+ * terms for the frame time, and then moves every object with four multiplications. Each object
+ * starts after its own start delay and comes to rest on its own, like a spring animation would.
+ */
+public final class SpringBatch implements AnimationHandler.AnimationFrameCallback {
+
+    /**
+     * Receives a notification when every object of the batch has come to rest, or the batch was
+     * canceled.
+     */
+    public interface OnBatchEndListener {
+        /**
+         * @param batch    the batch that ended
+         * @param canceled whether the batch was canceled before every object came to rest
+         */
+        void onBatchEnd(SpringBatch batch, boolean canceled);
+    }
+
+    // State of each object.
+    private static final byte WAITING = 0;
+    private static final byte STARTED = 1;
+    private static final byte AT_REST = 2;
+
+    private final FloatPropertyCompat property;
+    // Copy of the prototype's spring, resting at 0, so it solves for the displacement.
+    private final SpringForce spring;
+    private final float minValue;
+    private final float maxValue;
+
+    private final Object[] targets;
+    private final long[] startDelays;
+    private final float[] startValues;
+    private final float[] startVelocities;
+    private final float[] finalPositions;
+    private final float[] values;
+    private final float[] velocities;
+    private final byte[] states;
+    // Time each object comes to rest after its start delay, worked out when first needed.
+    private long[] durations;
+
+    private OnBatchEndListener endListener;
+    private AnimationHandler animationHandler;
+    private boolean running;
+    private int moving;
+    private long startFrameTime;
+    private long lastFrameTime;
+
+    /**
+     * Creates a batch that plays the prototype on every target. The prototype's property, spring,
+     * start value and velocity, min and max values and minimum visible change are used. When the
+     * prototype has no start value, each target starts from the value its property has now.
+     *
+     * @param prototype   spring animation to play on every target
+     * @param targets     objects to animate
+     * @param startDelays start delay of each object, in milliseconds
+     * @throws UnsupportedOperationException if the prototype has no spring
+     */
+    public SpringBatch(SpruceSpringAnimation prototype, Object[] targets, long[] startDelays) {
+        if (targets.length != startDelays.length) {
+            throw new IllegalArgumentException("Every target needs a start delay");
+        }
+        SpringForce prototypeSpring = prototype.getSpring();
+        if (prototypeSpring == null) {
+            throw new UnsupportedOperationException("Incomplete SpringAnimation: Either final"
+                    + " position or a spring force needs to be set.");
+        }
+        property = prototype.getAnimationProperty();
+        spring = new SpringForce(prototypeSpring).setFinalPosition(0);
+        minValue = prototype.mMinValue;
+        maxValue = prototype.mMaxValue;
+        spring.setValueThreshold(prototype.getValueThreshold());
+
+        int size = targets.length;
+        this.targets = targets.clone();
+        this.startDelays = startDelays.clone();
+        startValues = new float[size];
+        startVelocities = new float[size];
+        finalPositions = new float[size];
+        values = new float[size];
+        velocities = new float[size];
+        states = new byte[size];
+        for (int i = 0; i < size; i++) {
+            startValues[i] = prototype.mStartValueIsSet
+                    ? prototype.mValue : getPropertyValue(targets[i]);
+            startVelocities[i] = prototype.mVelocity;
+            finalPositions[i] = prototypeSpring.getFinalPosition();
+        }
+    }
+
+    /**
+     * @return number of objects in the batch
+     */
+    public int size() {
+        return targets.length;
+    }
+
+    /**
+     * @param index index of the object
+     * @return current value of the object's property as set by the batch
+     */
+    public float getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Sets the listener notified when the batch ends.
+     *
+     * @param listener the listener, or null
+     */
+    public void setEndListener(OnBatchEndListener listener) {
+        endListener = listener;
+    }
+
+    /**
+     * Sets the animation handler that schedules the frames of the batch, see
+     * {@link SpruceDynamics#setAnimationHandler(AnimationHandler)}.
+     *
+     * @param animationHandler the handler to use
+     */
+    public void setAnimationHandler(AnimationHandler animationHandler) {
+        if (running) {
+            throw new AndroidRuntimeException("Animations are still running and the animation"
+                    + "handler should not be set at this timming");
+        }
+        this.animationHandler = animationHandler;
+    }
+
+    /**
+     * Starts every object from its start value and velocity. If the batch is running, no op.
+     */
+    @MainThread
+    public void start() {
+        if (!getAnimationHandler().isCurrentThread()) {
+            throw new AndroidRuntimeException("Animations may only be started on the same thread "
+                    + "as the animation handler");
+        }
+        if (running) {
+            return;
+        }
+        running = true;
+        moving = targets.length;
+        startFrameTime = 0;
+        for (int i = 0; i < targets.length; i++) {
+            values[i] = startValues[i];
+            velocities[i] = startVelocities[i];
+            states[i] = WAITING;
+        }
+        getAnimationHandler().addAnimationFrameCallback(this, 0);
+    }
+
+    /**
+     * Stops every object where it is. If the batch isn't running, no op.
+     */
+    @MainThread
+    public void cancel() {
+        if (!getAnimationHandler().isCurrentThread()) {
+            throw new AndroidRuntimeException("Animations may only be canceled from the same "
+                    + "thread as the animation handler");
+        }
+        if (running) {
+            end(true);
+        }
+    }
+
+    /**
+     * @return whether the batch is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Moves every object to where it is the given time after the batch starts, without running
+     * the batch. See {@link SpruceDynamics#getValueAt(float, float, long)}.
+     *
+     * @param playTime time since the batch started, in milliseconds
+     */
+    public void seek(long playTime) {
+        for (int i = 0; i < targets.length; i++) {
+            long time = playTime - startDelays[i];
+            float value;
+            if (time <= 0) {
+                value = startValues[i];
+            } else if (time >= getDurations()[i]) {
+                value = finalPositions[i];
+            } else {
+                SpruceDynamics.MassState state = spring.getValuesAt(
+                        startValues[i] - finalPositions[i], startVelocities[i], time);
+                value = clamp(state.mValue + finalPositions[i]);
+            }
+            values[i] = value;
+            setPropertyValue(targets[i], value);
+        }
+    }
+
+    /**
+     * @return time from the start of the batch until every object has come to rest, in
+     * milliseconds
+     */
+    public long getDuration() {
+        long[] durations = getDurations();
+        long duration = 0;
+        for (int i = 0; i < targets.length; i++) {
+            duration = Math.max(duration, startDelays[i] + durations[i]);
+        }
+        return duration;
+    }
+
+    /**
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    @Override
+    public boolean doAnimationFrame(long frameTime) {
+        if (startFrameTime == 0) {
+            startFrameTime = frameTime;
+            lastFrameTime = frameTime;
+        }
+        long elapsed = frameTime - startFrameTime;
+        long deltaT = frameTime - lastFrameTime;
+        lastFrameTime = frameTime;
+
+        // How displacement and velocity change over this frame, the same for every object.
+        double[] transition = spring.getTransition(deltaT);
+        double displacementFromDisplacement = transition[0];
+        double displacementFromVelocity = transition[1];
+        double velocityFromDisplacement = transition[2];
+        double velocityFromVelocity = transition[3];
+
+        for (int i = 0; i < targets.length; i++) {
+            byte objectState = states[i];
+            if (objectState == AT_REST || elapsed < startDelays[i]) {
+                continue;
+            }
+            if (objectState == WAITING) {
+                // First frame of the object: show its start value.
+                states[i] = STARTED;
+                setPropertyValue(targets[i], values[i]);
+                continue;
+            }
+            float finalPosition = finalPositions[i];
+            double displacement = (double) values[i] - finalPosition;
+            double lastVelocity = velocities[i];
+            float value = clamp((float) (displacementFromDisplacement * displacement
+                    + displacementFromVelocity * lastVelocity + finalPosition));
+            float velocity = (float) (velocityFromDisplacement * displacement
+                    + velocityFromVelocity * lastVelocity);
+            if (spring.isAtEquilibrium(value - finalPosition, velocity)) {
+                value = finalPosition;
+                velocity = 0;
+                states[i] = AT_REST;
+                moving--;
+            }
+            values[i] = value;
+            velocities[i] = velocity;
+            setPropertyValue(targets[i], value);
+        }
+
+        if (moving == 0) {
+            end(false);
+            return true;
+        }
+        return false;
+    }
+
+    private void end(boolean canceled) {
+        running = false;
+        getAnimationHandler().removeCallback(this);
+        if (endListener != null) {
+            endListener.onBatchEnd(this, canceled);
+        }
+    }
+
+    /**
+     * Works out when each object comes to rest, stepping the spring function from its start state
+     * a frame at a time.
+     */
+    private long[] getDurations() {
+        if (durations == null) {
+            durations = new long[targets.length];
+            for (int i = 0; i < targets.length; i++) {
+                if (i > 0 && startValues[i] == startValues[i - 1]
+                        && startVelocities[i] == startVelocities[i - 1]
+                        && finalPositions[i] == finalPositions[i - 1]) {
+                    durations[i] = durations[i - 1];
+                    continue;
+                }
+                float displacement = startValues[i] - finalPositions[i];
+                long time = 0;
+                while (time < SpruceDynamics.MAX_PREDICTED_DURATION) {
+                    time += SpruceDynamics.FRAME_TIME;
+                    SpruceDynamics.MassState state =
+                            spring.getValuesAt(displacement, startVelocities[i], time);
+                    float value = clamp(state.mValue + finalPositions[i]);
+                    if (spring.isAtEquilibrium(value - finalPositions[i], state.mVelocity)) {
+                        break;
+                    }
+                }
+                durations[i] = time;
+            }
+        }
+        return durations;
+    }
+
+    private float clamp(float value) {
+        return Math.max(minValue, Math.min(maxValue, value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private float getPropertyValue(Object target) {
+        return property.getValue(target);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setPropertyValue(Object target, float value) {
+        property.setValue(target, value);
+    }
+
+    private AnimationHandler getAnimationHandler() {
+        if (animationHandler == null) {
+            animationHandler = AnimationHandler.getInstance();
+        }
+        return animationHandler;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Arrays;
+
+/**
+ * Values derived from a spring's stiffness and damping ratio that the spring function needs on
+ * every frame. A spring and all its copies share one instead of each working them out again. The
+ * value threshold is left to each spring, since every animation sets its own when it starts. The
+ * configuration is immutable; the only state is a cache of the spring function for the last few
+ * frame times, so like the animations, instances are meant to be used from the animation thread.
+ */
+final class SpringCoefficients {
+
+    // Number of frame times the spring function is cached for. Frame times alternate between a
+    // couple of values, e.g. 16 and 17 ms at 60 Hz or 8 and 9 ms at 120 Hz, so a small table keyed
+    // on the exact time covers them. Must be a power of two.
+    private static final int CACHE_SIZE = 8;
+    private static final int CACHE_BITS = 3;
+    // Marks an empty slot of the cache.
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // Natural frequency
+    final double mNaturalFreq;
+    // Damping ratio.
+    final double mDampingRatio;
+
+    // Intermediate values to simplify the spring function calculation per frame.
+    final double mGammaPlus;
+    final double mGammaMinus;
+    final double mDampedFreq;
+
+    // Open addressed table: the frame time each slot holds the spring function for, or EMPTY, and
+    // the 2x2 matrix of each slot.
+    private final long[] mCachedTimes = new long[CACHE_SIZE];
+    private final double[] mCachedTransitions = new double[CACHE_SIZE * 4];
+
+    SpringCoefficients(double naturalFreq, double dampingRatio) {
+        mNaturalFreq = naturalFreq;
+        mDampingRatio = dampingRatio;
+
+        if (dampingRatio > 1) {
+            // Over damping
+            mGammaPlus = -dampingRatio * naturalFreq
+                    + naturalFreq * Math.sqrt(dampingRatio * dampingRatio - 1);
+            mGammaMinus = -dampingRatio * naturalFreq
+                    - naturalFreq * Math.sqrt(dampingRatio * dampingRatio - 1);
+            mDampedFreq = 0;
+        } else if (dampingRatio >= 0 && dampingRatio < 1) {
+            // Under damping
+            mGammaPlus = 0;
+            mGammaMinus = 0;
+            mDampedFreq = naturalFreq * Math.sqrt(1 - dampingRatio * dampingRatio);
+        } else {
+            mGammaPlus = 0;
+            mGammaMinus = 0;
+            mDampedFreq = 0;
+        }
+        Arrays.fill(mCachedTimes, EMPTY);
+    }
+
+    /**
+     * Works out how the displacement from the final position and the velocity after the given
+     * time depend on the displacement and velocity before it, see
+     * {@link SpringForce#getTransition(long)}. The result is cached, so springs stepping by the
+     * same frame time share the exponential and trig terms. Only frame times should go through
+     * here; predictions over arbitrary times use {@link #computeTransition(long, double[])} so
+     * they don't evict them.
+     *
+     * @param timeElapsed time elapsed in milliseconds
+     * @param transition  array the 2x2 matrix is written to, in row order
+     */
+    void getTransition(long timeElapsed, double[] transition) {
+        long[] times = mCachedTimes;
+        int home = (int) ((timeElapsed ^ (timeElapsed >>> 32)) * 0x9E3779B9) >>> (32 - CACHE_BITS);
+        int slot = home;
+        for (int probe = 0; probe < CACHE_SIZE; probe++) {
+            long time = times[slot];
+            if (time == timeElapsed || time == EMPTY) {
+                break;
+            }
+            slot = (slot + 1) & (CACHE_SIZE - 1);
+        }
+        // When every slot holds another time, the probe ends back at home, which is replaced.
+        int offset = slot * 4;
+        double[] cached = mCachedTransitions;
+        if (times[slot] != timeElapsed) {
+            computeTransition(timeElapsed, cached, offset);
+            times[slot] = timeElapsed;
+        }
+        transition[0] = cached[offset];
+        transition[1] = cached[offset + 1];
+        transition[2] = cached[offset + 2];
+        transition[3] = cached[offset + 3];
+    }
+
+    /**
+     * @param timeElapsed time elapsed in milliseconds
+     * @return whether the spring function for the time is cached
+     */
+    @VisibleForTesting
+    boolean isCached(long timeElapsed) {
+        for (long time : mCachedTimes) {
+            if (time == timeElapsed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Works out the same matrix as {@link #getTransition(long, double[])} without the cache.
+     *
+     * @param timeElapsed time elapsed in milliseconds
+     * @param transition  array the 2x2 matrix is written to, in row order
+     */
+    void computeTransition(long timeElapsed, double[] transition) {
+        computeTransition(timeElapsed, transition, 0);
+    }
+
+    private void computeTransition(long timeElapsed, double[] transition, int offset) {
+        double naturalFreq = mNaturalFreq;
+        double dampingRatio = mDampingRatio;
+        double gammaPlus = mGammaPlus;
+        double gammaMinus = mGammaMinus;
+        double dampedFreq = mDampedFreq;
+
+        double deltaT = timeElapsed / 1000d; // unit: seconds
+        if (dampingRatio > 1) {
+            // Overdamped
+            double decayMinus = Math.exp(gammaMinus * deltaT);
+            double decayPlus = Math.exp(gammaPlus * deltaT);
+            double gammaDiff = gammaMinus - gammaPlus;
+            double coeffA = 1 - gammaMinus / gammaDiff;
+            double coeffB = gammaMinus / gammaDiff;
+            transition[offset] = coeffA * decayMinus + coeffB * decayPlus;
+            transition[offset + 1] = (decayMinus - decayPlus) / gammaDiff;
+            transition[offset + 2] = coeffA * gammaMinus * decayMinus
+                    + coeffB * gammaPlus * decayPlus;
+            transition[offset + 3] = (gammaMinus * decayMinus - gammaPlus * decayPlus) / gammaDiff;
+        } else if (dampingRatio == 1) {
+            // Critically damped
+            double decay = Math.exp(-naturalFreq * deltaT);
+            transition[offset] = (1 + naturalFreq * deltaT) * decay;
+            transition[offset + 1] = deltaT * decay;
+            transition[offset + 2] = -naturalFreq * naturalFreq * deltaT * decay;
+            transition[offset + 3] = (1 - naturalFreq * deltaT) * decay;
+        } else {
+            // Underdamped
+            double decay = Math.exp(-dampingRatio * naturalFreq * deltaT);
+            double cos = Math.cos(dampedFreq * deltaT);
+            double sin = Math.sin(dampedFreq * deltaT);
+            double damping = dampingRatio * naturalFreq;
+            double fromDisplacement = decay * (cos + damping * sin / dampedFreq);
+            double fromVelocity = decay * sin / dampedFreq;
+            transition[offset] = fromDisplacement;
+            transition[offset + 1] = fromVelocity;
+            transition[offset + 2] = -damping * fromDisplacement
+                    + decay * (damping * cos - dampedFreq * sin);
+            transition[offset + 3] = -damping * fromVelocity + decay * cos;
+        }
+    }
+}
@@ -80,11 +80,6 @@ public final class SpringForce implements Force {
      */
     public static final float DAMPING_RATIO_NO_BOUNCY = 1f;
 
-    // This multiplier is used to calculate the velocity threshold given a certain value threshold.
-    // The idea is that if it takes >= 1 frame to move the value threshold amount, then the velocity
-    // is a reasonable threshold.
-    private static final double VELOCITY_THRESHOLD_MULTIPLIER = 1000.0 / 16.0;
-
     // Natural frequency
     double mNaturalFreq = Math.sqrt(STIFFNESS_MEDIUM);
     // Damping ratio.
@@ -93,18 +88,19 @@ public final class SpringForce implements Force {
     // Value to indicate an unset state.
     private static final double UNSET = Double.MAX_VALUE;
 
-    // Indicates whether the spring has been initialized
-    private boolean mInitialized = false;
+    // This multiplier is used to calculate the velocity threshold given a certain value threshold.
+    // The idea is that if it takes >= 1 frame to move the value threshold amount, then the velocity
+    // is a reasonable threshold.
+    private static final double VELOCITY_THRESHOLD_MULTIPLIER = 1000.0 / 16.0;
 
     // Threshold for velocity and value to determine when it's reasonable to assume that the spring
     // is approximately at rest.
     private double mValueThreshold;
     private double mVelocityThreshold;
 
-    // Intermediate values to simplify the spring function calculation per frame.
-    private double mGammaPlus;
-    private double mGammaMinus;
-    private double mDampedFreq;
+    // Values derived from the stiffness and damping ratio. Shared with copies of this spring until
+    // one of those changes, and null when they need to be worked out again.
+    private SpringCoefficients mCoefficients;
 
     // Final position of the spring. This must be set before the start of the animation.
     private double mFinalPosition = UNSET;
@@ -112,6 +108,9 @@ public final class SpringForce implements Force {
     // Internal state to hold a value/velocity pair.
     private final SpruceDynamics.MassState mMassState = new SpruceDynamics.MassState();
 
+    // Internal state to hold the matrix of the spring function over one time step.
+    private final double[] mTransition = new double[4];
+
     /**
      * Creates a spring force. Note that final position of the spring must be set through
      * {@link #setFinalPosition(float)} before the spring animation starts.
@@ -129,6 +128,22 @@ public final class SpringForce implements Force {
         mFinalPosition = finalPosition;
     }
 
+    /**
+     * Creates a spring with the same stiffness, damping ratio and final position as the given one.
+     * The two springs share their precomputed values until either of them is reconfigured, so
+     * copying a spring for every animation costs little.
+     *
+     * @param spring spring to copy
+     */
+    public SpringForce(SpringForce spring) {
+        mNaturalFreq = spring.mNaturalFreq;
+        mDampingRatio = spring.mDampingRatio;
+        mFinalPosition = spring.mFinalPosition;
+        mValueThreshold = spring.mValueThreshold;
+        mVelocityThreshold = spring.mVelocityThreshold;
+        mCoefficients = spring.getCoefficients();
+    }
+
     /**
      * Sets the stiffness of a spring. The more stiff a spring is, the more force it applies to
      * the object attached when the spring is not at the final position. Default stiffness is
@@ -145,7 +160,7 @@ public final class SpringForce implements Force {
         }
         mNaturalFreq = Math.sqrt(stiffness);
         // All the intermediate values need to be recalculated.
-        mInitialized = false;
+        mCoefficients = null;
         return this;
     }
 
@@ -179,7 +194,7 @@ public final class SpringForce implements Force {
         }
         mDampingRatio = dampingRatio;
         // All the intermediate values need to be recalculated.
-        mInitialized = false;
+        mCoefficients = null;
         return this;
     }
 
@@ -246,31 +261,27 @@ public final class SpringForce implements Force {
      * Initialize the string by doing the necessary pre-calculation as well as some sanity check
      * on the setup.
      *
+     * @return the values the spring function needs
      * @throws IllegalStateException if the final position is not yet set by the time the spring
      *                               animation has started
      */
-    private void init() {
-        if (mInitialized) {
-            return;
-        }
-
+    private SpringCoefficients init() {
         if (mFinalPosition == UNSET) {
             throw new IllegalStateException("Error: Final position of the spring must be"
                     + " set before the animation starts");
         }
+        return getCoefficients();
+    }
 
-        if (mDampingRatio > 1) {
-            // Over damping
-            mGammaPlus = -mDampingRatio * mNaturalFreq
-                    + mNaturalFreq * Math.sqrt(mDampingRatio * mDampingRatio - 1);
-            mGammaMinus = -mDampingRatio * mNaturalFreq
-                    - mNaturalFreq * Math.sqrt(mDampingRatio * mDampingRatio - 1);
-        } else if (mDampingRatio >= 0 && mDampingRatio < 1) {
-            // Under damping
-            mDampedFreq = mNaturalFreq * Math.sqrt(1 - mDampingRatio * mDampingRatio);
+    /**
+     * Returns the values derived from the stiffness and damping ratio, working them out only when
+     * one of those has changed.
+     */
+    SpringCoefficients getCoefficients() {
+        if (mCoefficients == null) {
+            mCoefficients = new SpringCoefficients(mNaturalFreq, mDampingRatio);
         }
-
-        mInitialized = true;
+        return mCoefficients;
     }
 
     /**
@@ -279,48 +290,47 @@ public final class SpringForce implements Force {
      */
     SpruceDynamics.MassState updateValues(double lastDisplacement, double lastVelocity,
                                           long timeElapsed) {
-        init();
+        return applyTransition(getTransition(timeElapsed), lastDisplacement, lastVelocity);
+    }
+
+    /**
+     * Same as {@link #updateValues(double, double, long)}, for predicting the spring over any
+     * length of time, e.g. to seek an animation or to find its duration. It skips the cache of
+     * frame times, which these times would only evict entries from.
+     */
+    SpruceDynamics.MassState getValuesAt(double lastDisplacement, double lastVelocity,
+                                         long timeElapsed) {
+        init().computeTransition(timeElapsed, mTransition);
+        return applyTransition(mTransition, lastDisplacement, lastVelocity);
+    }
 
-        double deltaT = timeElapsed / 1000d; // unit: seconds
+    private SpruceDynamics.MassState applyTransition(double[] transition, double lastDisplacement,
+                                                     double lastVelocity) {
         lastDisplacement -= mFinalPosition;
-        double displacement;
-        double currentVelocity;
-        if (mDampingRatio > 1) {
-            // Overdamped
-            double coeffA =  lastDisplacement - (mGammaMinus * lastDisplacement - lastVelocity)
-                    / (mGammaMinus - mGammaPlus);
-            double coeffB =  (mGammaMinus * lastDisplacement - lastVelocity)
-                    / (mGammaMinus - mGammaPlus);
-            displacement = coeffA * Math.pow(Math.E, mGammaMinus * deltaT)
-                    + coeffB * Math.pow(Math.E, mGammaPlus * deltaT);
-            currentVelocity = coeffA * mGammaMinus * Math.pow(Math.E, mGammaMinus * deltaT)
-                    + coeffB * mGammaPlus * Math.pow(Math.E, mGammaPlus * deltaT);
-        } else if (mDampingRatio == 1) {
-            // Critically damped
-            double coeffA = lastDisplacement;
-            double coeffB = lastVelocity + mNaturalFreq * lastDisplacement;
-            displacement = (coeffA + coeffB * deltaT) * Math.pow(Math.E, -mNaturalFreq * deltaT);
-            currentVelocity = (coeffA + coeffB * deltaT) * Math.pow(Math.E, -mNaturalFreq * deltaT)
-                    * -mNaturalFreq + coeffB * Math.pow(Math.E, -mNaturalFreq * deltaT);
-        } else {
-            // Underdamped
-            double cosCoeff = lastDisplacement;
-            double sinCoeff = (1 / mDampedFreq) * (mDampingRatio * mNaturalFreq
-                    * lastDisplacement + lastVelocity);
-            displacement = Math.pow(Math.E, -mDampingRatio * mNaturalFreq * deltaT)
-                    * (cosCoeff * Math.cos(mDampedFreq * deltaT)
-                    + sinCoeff * Math.sin(mDampedFreq * deltaT));
-            currentVelocity = displacement * -mNaturalFreq * mDampingRatio
-                    + Math.pow(Math.E, -mDampingRatio * mNaturalFreq * deltaT)
-                    * (-mDampedFreq * cosCoeff * Math.sin(mDampedFreq * deltaT)
-                    + mDampedFreq * sinCoeff * Math.cos(mDampedFreq * deltaT));
-        }
+        double displacement = transition[0] * lastDisplacement + transition[1] * lastVelocity;
+        double currentVelocity = transition[2] * lastDisplacement + transition[3] * lastVelocity;
 
         mMassState.mValue = (float) (displacement + mFinalPosition);
         mMassState.mVelocity = (float) currentVelocity;
         return mMassState;
     }
 
+    /**
+     * Works out how the displacement from the final position and the velocity after the given
+     * time depend on the displacement and velocity before it. The spring function is linear in
+     * both, so this is a 2x2 matrix that any number of objects on the same spring can share. It
+     * is cached per frame time and shared with the copies of this spring.
+     *
+     * @param timeElapsed time elapsed in milliseconds
+     * @return the matrix in row order: displacement from displacement, displacement from
+     * velocity, velocity from displacement and velocity from velocity. The array is reused by the
+     * next call.
+     */
+    double[] getTransition(long timeElapsed) {
+        init().getTransition(timeElapsed, mTransition);
+        return mTransition;
+    }
+
     /**
      * This threshold defines how close the animation value needs to be before the animation can
      * finish. This default value is based on the property being animated, e.g. animations on alpha,
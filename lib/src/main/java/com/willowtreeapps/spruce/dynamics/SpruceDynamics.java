@@ -299,6 +299,15 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
     // Multiplier to the min visible change value for value threshold
     private static final float THRESHOLD_MULTIPLIER = 0.75f;
 
+    /**
+     * Longest duration, in milliseconds, worked out for an animation before it's played. Animations
+     * that would run longer, such as undamped springs, are taken to end there.
+     */
+    public static final long MAX_PREDICTED_DURATION = 60_000;
+
+    // Frame time used to step through an animation before it's played.
+    static final long FRAME_TIME = 16;
+
     // Internal tracking for velocity.
     public float mVelocity = 0;
 
@@ -311,8 +320,11 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
 
     private long startDelay = 0;
 
-    // Target to be animated.
-    final Object mTarget;
+    // Target to be animated. Changes when the animation is reused by a DynamicsPool.
+    Object mTarget;
+
+    // Whether the animation is waiting in a DynamicsPool.
+    boolean mPooled;
 
     public long getStartDelay() {
         return startDelay;
@@ -358,7 +370,7 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
      *
      * @param floatValueHolder the FloatValueHolder instance to be animated.
      */
-    SpruceDynamics(final FloatValueHolder floatValueHolder) {
+    protected SpruceDynamics(final FloatValueHolder floatValueHolder) {
         mTarget = null;
         mProperty = new FloatPropertyCompat("FloatValueHolder") {
             @Override
@@ -391,7 +403,7 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
      * @param property the property to be animated
      */
 
-    <K> SpruceDynamics(K object, FloatPropertyCompat<K> property) {
+    protected <K> SpruceDynamics(K object, FloatPropertyCompat<K> property) {
         mTarget = object;
         mProperty = property;
         if (mProperty == ROTATION || mProperty == ROTATION_X
@@ -420,6 +432,30 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
         return (T) this;
     }
 
+    /**
+     * Returns the value the animation starts from: the value set through
+     * {@link #setStartValue(float)}, or when none was set, the current value of the animated
+     * property.
+     *
+     * @return start value of the animation
+     */
+    public float getStartValue() {
+        return mStartValueIsSet ? mValue : getPropertyValue();
+    }
+
+    /**
+     * Returns the value the animation would start from on the given object: the value set
+     * through {@link #setStartValue(float)}, or when none was set, the object's current value of
+     * the animated property.
+     *
+     * @param target object the animation would be played on
+     * @return start value of the animation on that object
+     */
+    @SuppressWarnings("unchecked")
+    public float getStartValue(Object target) {
+        return mStartValueIsSet ? mValue : mProperty.getValue(target);
+    }
+
     /**
      * Start velocity of the animation. Default velocity is 0. Unit: change in property per
      * second (e.g. pixels per second, scale/alpha value change per second).
@@ -665,6 +701,110 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
         return mRunning;
     }
 
+    /**
+     * Creates an animation that animates the same property of the given object the same way. The
+     * start value, if one was set, the start velocity, the min and max values, the start delay and
+     * the minimum visible change are copied. Listeners are not.
+     *
+     * @param target the object the copy animates
+     * @return a new animation, not yet started
+     */
+    public T copy(Object target) {
+        T copy = onCopy(target);
+        ((SpruceDynamics<?>) copy).copySettings(this);
+        return copy;
+    }
+
+    /**
+     * Turns a finished animation into a copy of the prototype for the given object, as
+     * {@link #copy(Object)} would create. Used by {@link DynamicsPool}.
+     *
+     * @return false when the animation is running, or its class doesn't support being reused
+     */
+    @SuppressWarnings("unchecked")
+    boolean reuse(SpruceDynamics<?> prototype, Object target) {
+        if (mRunning || prototype.getClass() != getClass() || !onReuse((T) prototype)) {
+            return false;
+        }
+        mTarget = target;
+        mProperty = prototype.mProperty;
+        mValue = UNSET;
+        mStartValueIsSet = false;
+        mLastFrameTime = 0;
+        copySettings(prototype);
+        return true;
+    }
+
+    /**
+     * Drops the target and listeners of a finished animation before it goes into a
+     * {@link DynamicsPool}. Listeners are marked {@code null}, as this can run from an end
+     * listener.
+     */
+    void recycle() {
+        mTarget = null;
+        for (int i = 0; i < mEndListeners.size(); i++) {
+            mEndListeners.set(i, null);
+        }
+        for (int i = 0; i < mUpdateListeners.size(); i++) {
+            mUpdateListeners.set(i, null);
+        }
+    }
+
+    /**
+     * Copies the settings every animation has from the given one.
+     */
+    private void copySettings(SpruceDynamics<?> other) {
+        if (other.mStartValueIsSet) {
+            setStartValue(other.mValue);
+        }
+        setStartVelocity(other.mVelocity);
+        setMinValue(other.mMinValue);
+        setMaxValue(other.mMaxValue);
+        setStartDelay(other.startDelay);
+        setMinimumVisibleChange(other.mMinVisibleChange);
+    }
+
+    /**
+     * Returns the value of the animation the given time after it starts from the given value and
+     * velocity, without changing the animation or the property it animates. This lets a planned
+     * animation be seeked instead of played. The animation is stepped through one frame at a
+     * time; subclasses with a closed form override this. Closed forms may carry on past the point
+     * the animation comes to rest, so callers keep the play time within
+     * {@link #getDuration(float, float)}.
+     *
+     * @param startValue    value the animation starts from
+     * @param startVelocity velocity the animation starts with
+     * @param playTime      time since the animation started, in milliseconds
+     * @return value of the animation at that time
+     */
+    public float getValueAt(float startValue, float startVelocity, long playTime) {
+        float value = mValue;
+        float velocity = mVelocity;
+        simulate(startValue, startVelocity, playTime);
+        float valueAt = mValue;
+        mValue = value;
+        mVelocity = velocity;
+        return valueAt;
+    }
+
+    /**
+     * Returns how long the animation runs when it starts from the given value and velocity,
+     * without changing the animation. Animations that don't come to rest within
+     * {@link #MAX_PREDICTED_DURATION} are reported as taking that long.
+     *
+     * @param startValue    value the animation starts from
+     * @param startVelocity velocity the animation starts with
+     * @return duration of the animation, in milliseconds
+     */
+    public long getDuration(float startValue, float startVelocity) {
+        float value = mValue;
+        float velocity = mVelocity;
+        long duration = simulate(startValue, startVelocity, MAX_PREDICTED_DURATION);
+        mValue = value;
+        mVelocity = velocity;
+        return duration;
+    }
+
     /************************** Private APIs below ********************************/
 
     // This gets called when the animation is started, to finish the setup of the animation
@@ -718,14 +858,36 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
     }
 
     /**
-     * Updates the animation state (i.e. value and velocity). This method is package private, so
-     * subclasses can override this method to calculate the new value and velocity in their custom
-     * way.
+     * Updates the animation state (i.e. value and velocity). Subclasses implement this method to
+     * calculate the new value and velocity in their custom way.
      *
      * @param deltaT time elapsed in millisecond since last frame
      * @return whether the animation has finished
      */
-    abstract boolean updateValueAndVelocity(long deltaT);
+    protected abstract boolean updateValueAndVelocity(long deltaT);
+
+    /**
+     * Steps the animation from the given value and velocity in frames of {@link #FRAME_TIME},
+     * leaving the result in the value and velocity.
+     *
+     * @return time at which the animation finished, or the given play time when it didn't
+     */
+    private long simulate(float startValue, float startVelocity, long playTime) {
+        mValue = startValue;
+        mVelocity = startVelocity;
+        long time = 0;
+        while (time < playTime) {
+            long deltaT = Math.min(FRAME_TIME, playTime - time);
+            time += deltaT;
+            boolean finished = updateValueAndVelocity(deltaT);
+            mValue = Math.min(mValue, mMaxValue);
+            mValue = Math.max(mValue, mMinValue);
+            if (finished) {
+                break;
+            }
+        }
+        return time;
+    }
 
     /**
      * Internal method to reset the animation states when animation is finished/canceled.
@@ -806,20 +968,43 @@ public abstract class SpruceDynamics<T extends SpruceDynamics<T>>
     }
 
     /****************Sub class animations**************/
+    /**
+     * Creates an animation of the same class for the given object, with this animation's
+     * property and subclass configuration, such as its spring or friction. The settings common to
+     * every animation are copied by {@link #copy(Object)}.
+     *
+     * @param target the object the copy animates
+     * @return a new animation
+     */
+    protected abstract T onCopy(Object target);
+
+    /**
+     * Reconfigures this finished animation to match the given prototype, so a
+     * {@link DynamicsPool} can hand it out instead of creating a copy. Only the subclass
+     * configuration needs copying. Subclasses that can't be reused return false, which is the
+     * default.
+     *
+     * @param prototype animation of the same class to match
+     * @return whether the animation was reconfigured
+     */
+    protected boolean onReuse(T prototype) {
+        return false;
+    }
+
     /**
      * Returns the acceleration at the given value with the given velocity.
      **/
-    abstract float getAcceleration(float value, float velocity);
+    protected abstract float getAcceleration(float value, float velocity);
 
     /**
      * Returns whether the animation has reached equilibrium.
      */
-    abstract boolean isAtEquilibrium(float value, float velocity);
+    protected abstract boolean isAtEquilibrium(float value, float velocity);
 
     /**
      * Updates the default value threshold for the animation based on the property to be animated.
      */
-    abstract void setValueThreshold(float threshold);
+    protected abstract void setValueThreshold(float threshold);
 
     /**
      * An animation listener that receives end notifications from an animation.
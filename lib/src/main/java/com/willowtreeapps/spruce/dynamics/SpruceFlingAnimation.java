@@ -157,8 +157,58 @@ public final class SpruceFlingAnimation extends SpruceDynamics<SpruceFlingAnimat
         return this;
     }
 
+    /**
+     * Returns the value of the fling the given time after it starts from the given value and
+     * velocity. The velocity decays exponentially, so this costs the same for any play time.
+     *
+     * @param startValue    value the animation starts from
+     * @param startVelocity velocity the animation starts with
+     * @param playTime      time since the animation started, in milliseconds
+     * @return value of the animation at that time
+     */
+    @Override
+    public float getValueAt(float startValue, float startVelocity, long playTime) {
+        playTime = Math.min(playTime, getDuration(startValue, startVelocity));
+        if (playTime <= 0) {
+            return startValue;
+        }
+        MassState state = mFlingForce.updateValueAndVelocity(startValue, startVelocity, playTime);
+        return Math.max(mMinValue, Math.min(mMaxValue, state.mValue));
+    }
+
+    @Override
+    public long getDuration(float startValue, float startVelocity) {
+        float speed = Math.abs(startVelocity);
+        if (speed < mFlingForce.mVelocityThreshold) {
+            return 0;
+        }
+        float friction = mFlingForce.mFriction;
+        // The velocity v0 * e^(friction * t) drops under the threshold...
+        double duration = Math.log(mFlingForce.mVelocityThreshold / speed) / friction;
+        // ...unless the value x0 + v0 * (e^(friction * t) - 1) / friction reaches the min or max
+        // value first.
+        float bound = startVelocity > 0 ? mMaxValue : mMinValue;
+        double decay = 1 + friction * (bound - startValue) / startVelocity;
+        if (decay > 0) {
+            duration = Math.min(duration, Math.log(decay) / friction);
+        }
+        return (long) Math.min(MAX_PREDICTED_DURATION, Math.ceil(duration * 1000));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected SpruceFlingAnimation onCopy(Object target) {
+        return new SpruceFlingAnimation(target, getAnimationProperty()).setFriction(getFriction());
+    }
+
+    @Override
+    protected boolean onReuse(SpruceFlingAnimation prototype) {
+        setFriction(prototype.getFriction());
+        return true;
+    }
+
     @Override
-    boolean updateValueAndVelocity(long deltaT) {
+    protected boolean updateValueAndVelocity(long deltaT) {
 
         MassState state = mFlingForce.updateValueAndVelocity(mValue, mVelocity, deltaT);
         mValue = state.mValue;
@@ -181,19 +231,19 @@ public final class SpruceFlingAnimation extends SpruceDynamics<SpruceFlingAnimat
     }
 
     @Override
-    float getAcceleration(float value, float velocity) {
+    protected float getAcceleration(float value, float velocity) {
         return mFlingForce.getAcceleration(value, velocity);
     }
 
     @Override
-    boolean isAtEquilibrium(float value, float velocity) {
+    protected boolean isAtEquilibrium(float value, float velocity) {
         return value >= mMaxValue
                 || value <= mMinValue
                 || mFlingForce.isAtEquilibrium(value, velocity);
     }
 
     @Override
-    void setValueThreshold(float threshold) {
+    protected void setValueThreshold(float threshold) {
         mFlingForce.setValueThreshold(threshold);
     }
 
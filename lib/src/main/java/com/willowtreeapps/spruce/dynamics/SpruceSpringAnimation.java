@@ -247,8 +247,71 @@ public final class SpruceSpringAnimation extends SpruceDynamics<SpruceSpringAnim
         return mSpring.mDampingRatio > 0;
     }
 
+    /**
+     * Returns the value of the spring the given time after it starts from the given value and
+     * velocity. The spring has a closed form, so this costs the same for any play time.
+     *
+     * @param startValue    value the animation starts from
+     * @param startVelocity velocity the animation starts with
+     * @param playTime      time since the animation started, in milliseconds
+     * @return value of the animation at that time
+     */
+    @Override
+    public float getValueAt(float startValue, float startVelocity, long playTime) {
+        sanityCheck();
+        if (playTime <= 0) {
+            return startValue;
+        }
+        mSpring.setValueThreshold(getValueThreshold());
+        MassState massState = mSpring.getValuesAt(startValue, startVelocity, playTime);
+        float value = Math.max(mMinValue, Math.min(mMaxValue, massState.mValue));
+        if (isAtEquilibrium(value, massState.mVelocity)) {
+            return mSpring.getFinalPosition();
+        }
+        return value;
+    }
+
+    @Override
+    public long getDuration(float startValue, float startVelocity) {
+        sanityCheck();
+        mSpring.setValueThreshold(getValueThreshold());
+        long time = 0;
+        while (time < MAX_PREDICTED_DURATION) {
+            time += FRAME_TIME;
+            MassState massState = mSpring.getValuesAt(startValue, startVelocity, time);
+            float value = Math.max(mMinValue, Math.min(mMaxValue, massState.mValue));
+            if (isAtEquilibrium(value, massState.mVelocity)) {
+                break;
+            }
+        }
+        return time;
+    }
+
+    /**
+     * The copy gets its own copy of the spring, so starting it or reconfiguring its spring doesn't
+     * affect this animation. The values precomputed for the spring are shared.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected SpruceSpringAnimation onCopy(Object target) {
+        return new SpruceSpringAnimation(target, getAnimationProperty())
+                .setSpring(copySpring());
+    }
+
+    @Override
+    protected boolean onReuse(SpruceSpringAnimation prototype) {
+        mSpring = prototype.copySpring();
+        mPendingPosition = UNSET;
+        mEndRequested = false;
+        return true;
+    }
+
     /************************ Below are private APIs *************************/
 
+    private SpringForce copySpring() {
+        return mSpring == null ? null : new SpringForce(mSpring);
+    }
+
     private void sanityCheck() {
         if (mSpring == null) {
             throw new UnsupportedOperationException("Incomplete SpringAnimation: Either final"
@@ -265,7 +328,7 @@ public final class SpruceSpringAnimation extends SpruceDynamics<SpruceSpringAnim
     }
 
     @Override
-    boolean updateValueAndVelocity(long deltaT) {
+    protected boolean updateValueAndVelocity(long deltaT) {
         // If user had requested end, then update the value and velocity to end state and consider
         // animation done.
         if (mEndRequested) {
@@ -308,16 +371,16 @@ public final class SpruceSpringAnimation extends SpruceDynamics<SpruceSpringAnim
     }
 
     @Override
-    float getAcceleration(float value, float velocity) {
+    protected float getAcceleration(float value, float velocity) {
         return mSpring.getAcceleration(value, velocity);
     }
 
     @Override
-    boolean isAtEquilibrium(float value, float velocity) {
+    protected boolean isAtEquilibrium(float value, float velocity) {
         return mSpring.isAtEquilibrium(value, velocity);
     }
 
     @Override
-    void setValueThreshold(float threshold) {
+    protected void setValueThreshold(float threshold) {
     }
 }
@@ -0,0 +1,224 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.content.ComponentCallbacks2;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers the order and time offsets another {@link SortFunction} produced for a parent and
+ * hands them back while the layout stays the same, so animating the same screen again does not
+ * sort it again. The layout is identified by the parent size, the position strategy of the
+ * wrapped sort and the identity, exact position and size of every child, in the order they are
+ * passed in. Any other setting of the wrapped sort, such as the origin of a {@link RippleSort},
+ * must not change while it is cached, or {@link #clear()} has to be called when it does.
+ *
+ * <p>Entries are held softly and only reference the children weakly, so they are dropped when
+ * their parent is collected. Call {@link #onTrimMemory(int)} from your own
+ * {@link ComponentCallbacks2} to let go of them earlier.</p>
+ */
+public class CachedSort extends SortFunction {
+
+    private final SortFunction sortFunction;
+    private final Map<ViewGroup, SoftReference<Entry>> cache = new WeakHashMap<>();
+
+    /**
+     * Caches the results of a sort function.
+     *
+     * @param sortFunction the sort function to cache, must be deterministic for a given layout
+     */
+    public CachedSort(SortFunction sortFunction) {
+        if (sortFunction == null) {
+            throw new NullPointerException("SortFunction can't be null");
+        }
+        this.sortFunction = sortFunction;
+    }
+
+    /**
+     * Sets the position strategy of the wrapped sort function as well.
+     */
+    @Override
+    public SortFunction setPositionStrategy(PositionStrategy positionStrategy) {
+        super.setPositionStrategy(positionStrategy);
+        sortFunction.setPositionStrategy(positionStrategy);
+        clear();
+        return this;
+    }
+
+    @Override
+    public void sortChildren(ViewGroup parent, List<View> children) {
+        sortFunction.sortChildren(parent, children);
+    }
+
+    @Override
+    public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
+        return sortFunction.getViewListWithTimeOffsets(parent, children);
+    }
+
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        SoftReference<Entry> reference = cache.get(parent);
+        Entry entry = reference != null ? reference.get() : null;
+        if (entry != null && entry.matches(parent, sortFunction.getPositionStrategy(), children)) {
+            return entry.apply(children);
+        }
+
+        Entry layout = new Entry(parent, sortFunction.getPositionStrategy(), children);
+        List<SpruceTimedView> timedViews = sortFunction.sortWithTimeOffsets(parent, children);
+        if (layout.record(timedViews)) {
+            cache.put(parent, new SoftReference<>(layout));
+        } else {
+            cache.remove(parent);
+        }
+        return timedViews;
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Drops every cached result once the system starts running low on memory. Meant to be called
+     * from {@link ComponentCallbacks2#onTrimMemory(int)}.
+     *
+     * @param level the trim level passed to onTrimMemory
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            clear();
+        }
+    }
+
+    /**
+     * The layout a sort was run on and its result, as indices into the children it was given.
+     */
+    private static final class Entry {
+        final int parentWidth;
+        final int parentHeight;
+        final PositionStrategy positionStrategy;
+        final WeakReference<View>[] views;
+        final float[] x;
+        final float[] y;
+        final int[] width;
+        final int[] height;
+        int[] order;
+        long[] offsets;
+
+        @SuppressWarnings("unchecked")
+        Entry(ViewGroup parent, PositionStrategy positionStrategy, List<View> children) {
+            int size = children.size();
+            parentWidth = parent.getWidth();
+            parentHeight = parent.getHeight();
+            this.positionStrategy = positionStrategy;
+            views = new WeakReference[size];
+            x = new float[size];
+            y = new float[size];
+            width = new int[size];
+            height = new int[size];
+            for (int i = 0; i < size; i++) {
+                View child = children.get(i);
+                views[i] = new WeakReference<>(child);
+                x[i] = child.getX();
+                y[i] = child.getY();
+                width[i] = child.getWidth();
+                height[i] = child.getHeight();
+            }
+        }
+
+        /**
+         * Keeps the result of the sort, unless it is not a reordering of the children.
+         *
+         * @return whether the result can be cached
+         */
+        boolean record(List<SpruceTimedView> timedViews) {
+            if (timedViews.size() != views.length) {
+                return false;
+            }
+            Map<View, Integer> indices = new IdentityHashMap<>(views.length);
+            for (int i = 0; i < views.length; i++) {
+                indices.put(views[i].get(), i);
+            }
+            if (indices.size() != views.length) {
+                return false;
+            }
+            order = new int[views.length];
+            offsets = new long[views.length];
+            for (int i = 0; i < views.length; i++) {
+                SpruceTimedView timedView = timedViews.get(i);
+                Integer index = indices.remove(timedView.getView());
+                if (index == null) {
+                    return false;
+                }
+                order[i] = index;
+                offsets[i] = timedView.getTimeOffset();
+            }
+            return true;
+        }
+
+        boolean matches(ViewGroup parent, PositionStrategy positionStrategy, List<View> children) {
+            if (children.size() != views.length || parent.getWidth() != parentWidth
+                    || parent.getHeight() != parentHeight
+                    || positionStrategy != this.positionStrategy) {
+                return false;
+            }
+            for (int i = 0; i < views.length; i++) {
+                View child = children.get(i);
+                if (child != views[i].get()
+                        || Float.compare(child.getX(), x[i]) != 0
+                        || Float.compare(child.getY(), y[i]) != 0
+                        || child.getWidth() != width[i] || child.getHeight() != height[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Puts the children in the cached order.
+         *
+         * @return the children with their cached offsets
+         */
+        List<SpruceTimedView> apply(List<View> children) {
+            View[] unsorted = children.toArray(new View[0]);
+            List<SpruceTimedView> timedViews = new ArrayList<>(order.length);
+            for (int i = 0; i < order.length; i++) {
+                View child = unsorted[order[i]];
+                children.set(i, child);
+                timedViews.add(new SpruceTimedView(child, offsets[i]));
+            }
+            return timedViews;
+        }
+    }
+
+}
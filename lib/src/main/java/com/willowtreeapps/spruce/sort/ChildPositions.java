@@ -0,0 +1,348 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.sort;
+
+import android.view.View;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Snapshot of the child coordinates used by the sort functions. The coordinates are read once,
+ * through a {@link PositionStrategy}, into primitive arrays, so comparators index into them
+ * instead of calling {@link Utils#viewToPoint(View)} and allocating a new point on every
+ * comparison.
+ */
+final class ChildPositions {
+
+    private static final int INSERTION_SORT_THRESHOLD = 7;
+
+    /**
+     * Below this many children a comparison sort is as quick as bucketing.
+     */
+    private static final int MIN_BUCKETED_SIZE = 16;
+
+    /**
+     * Compares two children by their index in the snapshot.
+     */
+    interface IndexComparator {
+        int compare(int left, int right);
+    }
+
+    final int size;
+    final View[] views;
+    final float[] x;
+    final float[] y;
+
+    /**
+     * Keys replaced by their rank among the distinct keys. Grid layouts only have a few distinct
+     * row and column coordinates, so children can be ordered by counting them into buckets.
+     */
+    static final class Buckets {
+        /**
+         * Bucket of each child, buckets are numbered in ascending key order.
+         */
+        final int[] bucket;
+        final int count;
+
+        Buckets(int[] bucket, int count) {
+            this.bucket = bucket;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Reads the top left corner of every child, see {@link PositionStrategy#TOP_LEFT}.
+     *
+     * @param children views to read the positions of
+     */
+    ChildPositions(List<View> children) {
+        this(children, PositionStrategy.TOP_LEFT);
+    }
+
+    /**
+     * Reads the position of every child.
+     *
+     * @param children views to read the positions of
+     * @param positionStrategy point of each child to read
+     */
+    ChildPositions(List<View> children, PositionStrategy positionStrategy) {
+        size = children.size();
+        views = new View[size];
+        x = new float[size];
+        y = new float[size];
+        positionStrategy.getPositions(children, x, y);
+        for (int i = 0; i < size; i++) {
+            views[i] = children.get(i);
+        }
+    }
+
+    /**
+     * Sorts the children with the given comparator and writes the new order back into the list.
+     * The sort is stable, so children that compare equal keep their current order.
+     *
+     * @param children list the snapshot was taken from
+     * @param comparator comparator over snapshot indices
+     */
+    void sort(List<View> children, IndexComparator comparator) {
+        apply(order(comparator), children);
+    }
+
+    /**
+     * Sorts the children by a precomputed key and writes the new order back into the list.
+     *
+     * @param children list the snapshot was taken from
+     * @param keys one key per child
+     * @param descending true to sort from the largest key to the smallest
+     */
+    void sortByKey(List<View> children, double[] keys, boolean descending) {
+        apply(orderByKey(keys, descending), children);
+    }
+
+    /**
+     * The snapshot indices in their current order.
+     *
+     * @return identity permutation of the snapshot indices
+     */
+    int[] identity() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Stable sort of the snapshot indices with the given comparator.
+     *
+     * @param comparator comparator over snapshot indices
+     * @return permutation of the snapshot indices in sorted order
+     */
+    int[] order(IndexComparator comparator) {
+        int[] order = identity();
+        sort(order, comparator);
+        return order;
+    }
+
+    /**
+     * Stable sort of an array of indices with the given comparator.
+     *
+     * @param order indices to sort in place
+     * @param comparator comparator over the indices
+     */
+    static void sort(int[] order, IndexComparator comparator) {
+        mergeSort(order.clone(), order, 0, order.length, comparator);
+    }
+
+    /**
+     * Stable sort of the snapshot indices by a precomputed key.
+     *
+     * @param keys one key per child
+     * @param descending true to sort from the largest key to the smallest
+     * @return permutation of the snapshot indices in sorted order
+     */
+    int[] orderByKey(final double[] keys, final boolean descending) {
+        return order(new IndexComparator() {
+            @Override
+            public int compare(int left, int right) {
+                if (descending) {
+                    return Double.compare(keys[right], keys[left]);
+                }
+                return Double.compare(keys[left], keys[right]);
+            }
+        });
+    }
+
+    /**
+     * Stable sort of the snapshot indices by a precomputed key. Grid like layouts, where many
+     * children share a key, are ordered by bucket instead of by comparison.
+     *
+     * @param keys one key per child
+     * @param descending true to sort from the largest key to the smallest
+     * @return permutation of the snapshot indices in sorted order
+     */
+    int[] orderByKey(final float[] keys, final boolean descending) {
+        Buckets buckets = buckets(keys);
+        if (buckets != null) {
+            return orderByBucket(identity(), buckets.bucket, buckets.count, descending);
+        }
+        return order(new IndexComparator() {
+            @Override
+            public int compare(int left, int right) {
+                if (descending) {
+                    return Float.compare(keys[right], keys[left]);
+                }
+                return Float.compare(keys[left], keys[right]);
+            }
+        });
+    }
+
+    /**
+     * Stable sort of the snapshot indices by a major key, then by a minor key. Grid like
+     * layouts are ordered by bucket instead of by comparison.
+     *
+     * @param majorKeys one key per child, compared first
+     * @param minorKeys one key per child, compared when the major keys are equal
+     * @return permutation of the snapshot indices in sorted order
+     */
+    int[] orderByKeys(final float[] majorKeys, final float[] minorKeys) {
+        Buckets major = buckets(majorKeys);
+        Buckets minor = major != null ? buckets(minorKeys) : null;
+        if (minor != null) {
+            int[] order = orderByBucket(identity(), minor.bucket, minor.count, false);
+            return orderByBucket(order, major.bucket, major.count, false);
+        }
+        return order(new IndexComparator() {
+            @Override
+            public int compare(int left, int right) {
+                int result = Float.compare(majorKeys[left], majorKeys[right]);
+                if (result != 0) {
+                    return result;
+                }
+                return Float.compare(minorKeys[left], minorKeys[right]);
+            }
+        });
+    }
+
+    /**
+     * Groups the children by key, for layouts where many children share the same key. Keys are
+     * equal when {@link Float#compare(float, float)} says so.
+     *
+     * @param keys one key per child
+     * @return the buckets, or null when the keys are too spread out for bucketing to pay off
+     */
+    Buckets buckets(float[] keys) {
+        if (size < MIN_BUCKETED_SIZE) {
+            return null;
+        }
+        return rank(keys, size / 2);
+    }
+
+    /**
+     * Replaces every key by its rank among the distinct keys, however many there are.
+     *
+     * @param keys one key per child
+     * @return the keys as buckets, one bucket per distinct key
+     */
+    Buckets ranks(float[] keys) {
+        return rank(keys, size);
+    }
+
+    private Buckets rank(float[] keys, int maxBuckets) {
+        FloatIntMap ranks = new FloatIntMap(maxBuckets);
+        float[] distinct = new float[maxBuckets];
+        for (int i = 0; i < size; i++) {
+            if (ranks.get(keys[i]) < 0) {
+                if (ranks.size() == maxBuckets) {
+                    return null;
+                }
+                distinct[ranks.size()] = keys[i];
+                ranks.put(keys[i], 0);
+            }
+        }
+
+        int count = ranks.size();
+        Arrays.sort(distinct, 0, count);
+        for (int rank = 0; rank < count; rank++) {
+            ranks.put(distinct[rank], rank);
+        }
+        int[] bucket = new int[size];
+        for (int i = 0; i < size; i++) {
+            bucket[i] = ranks.get(keys[i]);
+        }
+        return new Buckets(bucket, count);
+    }
+
+    /**
+     * Stable counting sort of the snapshot indices by bucket. Sorting by the minor key first and
+     * then by the major key gives the same order as a comparator over both keys.
+     *
+     * @param order snapshot indices in their current order
+     * @param bucket bucket of each child
+     * @param count number of buckets
+     * @param descending true to put the last bucket first
+     * @return permutation of the snapshot indices in bucket order
+     */
+    static int[] orderByBucket(int[] order, int[] bucket, int count, boolean descending) {
+        int[] starts = new int[count + 1];
+        for (int index : order) {
+            starts[(descending ? count - 1 - bucket[index] : bucket[index]) + 1]++;
+        }
+        for (int i = 1; i <= count; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] sorted = new int[order.length];
+        for (int index : order) {
+            sorted[starts[descending ? count - 1 - bucket[index] : bucket[index]]++] = index;
+        }
+        return sorted;
+    }
+
+    /**
+     * Writes the views in the given order into the list.
+     *
+     * @param order permutation of the snapshot indices
+     * @param children list to write into, of the same size as the snapshot
+     */
+    void apply(int[] order, List<View> children) {
+        for (int i = 0; i < size; i++) {
+            children.set(i, views[order[i]]);
+        }
+    }
+
+    /**
+     * Merge sort of {@code dest[low, high)}; {@code src} must start out as a copy of {@code dest}.
+     */
+    private static void mergeSort(int[] src, int[] dest, int low, int high,
+                                  IndexComparator comparator) {
+        int length = high - low;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                for (int j = i; j > low && comparator.compare(dest[j - 1], dest[j]) > 0; j--) {
+                    int swap = dest[j];
+                    dest[j] = dest[j - 1];
+                    dest[j - 1] = swap;
+                }
+            }
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, comparator);
+        mergeSort(dest, src, mid, high, comparator);
+
+        // The halves are already in order, skip the merge.
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, length);
+            return;
+        }
+
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && comparator.compare(src[p], src[q]) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+}
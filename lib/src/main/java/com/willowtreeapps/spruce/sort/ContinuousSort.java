@@ -27,8 +27,6 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 public class ContinuousSort extends RadialSort {
@@ -53,19 +51,48 @@ public class ContinuousSort extends RadialSort {
     @Override
     public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        double[] distances = getDistances(positions, comparisonPoint);
+        return getTimedViews(positions, positions.identity(), distances);
+    }
+
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        if (!canSortInOnePass(ContinuousSort.class)) {
+            sortChildren(parent, children);
+            return getViewListWithTimeOffsets(parent, children);
+        }
+        final PointF comparisonPoint = getDistancePoint(parent, children);
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        double[] distances = getDistances(positions, comparisonPoint);
+        int[] order = positions.orderByKey(distances, false);
+        positions.apply(order, children);
+        return getTimedViews(positions, order, distances);
+    }
 
+    @Override
+    public void sortChildren(ViewGroup parent, List<View> children) {
+        final PointF comparisonPoint = getDistancePoint(parent, children);
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        positions.sortByKey(children, getDistances(positions, comparisonPoint), false);
+    }
+
+    /**
+     * Spread the children over the duration in proportion to their distance.
+     */
+    private List<SpruceTimedView> getTimedViews(ChildPositions positions, int[] order,
+                                                double[] distances) {
         double maxDistance = 0;
-        for (View v : children) {
-            double distance = getDistanceBetweenPoints(Utils.viewToPoint(v), comparisonPoint);
+        for (double distance : distances) {
             if (distance > maxDistance) {
                 maxDistance = distance;
             }
         }
 
-        List<SpruceTimedView> timedViews = new ArrayList<>();
-        for (View view : children) {
+        List<SpruceTimedView> timedViews = new ArrayList<>(positions.size);
+        for (int index : order) {
             double normalizedDistance;
-            double viewDistance = getDistanceBetweenPoints(Utils.viewToPoint(view), comparisonPoint);
+            double viewDistance = distances[index];
             if (reversed) {
                 normalizedDistance = (maxDistance - viewDistance) / maxDistance;
             } else {
@@ -73,23 +100,10 @@ public class ContinuousSort extends RadialSort {
             }
 
             long offset = Math.round(duration * normalizedDistance);
-            timedViews.add(new SpruceTimedView(view, offset));
+            timedViews.add(new SpruceTimedView(positions.views[index], offset));
         }
 
         return timedViews;
     }
 
-    @Override
-    public void sortChildren(ViewGroup parent, List<View> children) {
-        final PointF comparisonPoint = getDistancePoint(parent, children);
-        Collections.sort(children, new Comparator<View>() {
-            @Override
-            public int compare(View left, View right) {
-                double leftDistance = getDistanceBetweenPoints(Utils.viewToPoint(left), comparisonPoint);
-                double rightDistance = getDistanceBetweenPoints(Utils.viewToPoint(right), comparisonPoint);
-                return Double.compare(leftDistance, rightDistance);
-            }
-        });
-    }
-
 }
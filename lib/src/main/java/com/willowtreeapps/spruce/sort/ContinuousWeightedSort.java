@@ -27,12 +27,9 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 import androidx.annotation.FloatRange;
-import androidx.annotation.VisibleForTesting;
 
 public class ContinuousWeightedSort extends ContinuousSort {
 
@@ -44,8 +41,6 @@ public class ContinuousWeightedSort extends ContinuousSort {
     private final boolean reversed;
     private final double horizontalWeight;
     private final double verticalWeight;
-    private double maxHorizontalDistance;
-    private double maxVerticalDistance;
 
     /**
      * Establishes a weighted delay between object animations and their starting position based on distance,
@@ -73,58 +68,75 @@ public class ContinuousWeightedSort extends ContinuousSort {
         this.verticalWeight = verticalWeight;
     }
 
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        if (!canSortInOnePass(ContinuousWeightedSort.class)) {
+            sortChildren(parent, children);
+            return getViewListWithTimeOffsets(parent, children);
+        }
+        final PointF comparisonPoint = getDistancePoint(parent, children);
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        long[] offsets = getTimeOffsets(positions, comparisonPoint);
+        // Children are ordered by their distance to the comparison point, like
+        // ContinuousSort.sortChildren, only the offsets are weighted.
+        int[] order = positions.orderByKey(getDistances(positions, comparisonPoint), false);
+        positions.apply(order, children);
+        return getTimedViews(positions, order, offsets);
+    }
+
     @Override
     public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
-        Collections.sort(children, new Comparator<View>() {
-            @Override
-            public int compare(View v1, View v2) {
-                double leftHorizontalDistance = Utils.horizontalDistance(comparisonPoint, Utils.viewToPoint(v1)) * horizontalWeight;
-                double rightHorizontalDistance = Utils.horizontalDistance(comparisonPoint, Utils.viewToPoint(v2)) * horizontalWeight;
-                double leftVerticalDistance = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(v1)) * verticalWeight;
-                double rightVerticalDistance = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(v2)) * verticalWeight;
-                maxHorizontalDistance = calculateMaxDistance(leftHorizontalDistance, rightHorizontalDistance, maxHorizontalDistance);
-                maxVerticalDistance = calculateMaxDistance(leftVerticalDistance, rightVerticalDistance, maxVerticalDistance);
-                return 0;
-            }
-        });
-
-        List<SpruceTimedView> timedViews = new ArrayList<>();
-        long maxTimeOffset = 1;
-        for (View view : children) {
-            double viewHorizontalDistance = Utils.horizontalDistance(comparisonPoint, Utils.viewToPoint(view)) * horizontalWeight;
-            double viewVerticalDistance = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(view)) * verticalWeight;
-            double normalizedHorizontalDistance = viewHorizontalDistance / maxHorizontalDistance;
-            double normalizedVerticalDistance = viewVerticalDistance / maxVerticalDistance;
-            long offset = Math.round(duration * (normalizedHorizontalDistance * horizontalWeight + normalizedVerticalDistance * verticalWeight));
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        long[] offsets = getTimeOffsets(positions, comparisonPoint);
+        return getTimedViews(positions, positions.identity(), offsets);
+    }
 
-            if (offset > maxTimeOffset) {
-                maxTimeOffset = offset;
-            }
+    /**
+     * Weighs the horizontal and vertical distance of every child to the comparison point into
+     * its time offset.
+     *
+     * @param positions snapshot of the child positions
+     * @param comparisonPoint point the distances are measured from
+     * @return time offset of each child in the snapshot
+     */
+    private long[] getTimeOffsets(ChildPositions positions, PointF comparisonPoint) {
+        double[] horizontalDistances = new double[positions.size];
+        double[] verticalDistances = new double[positions.size];
+        double maxHorizontalDistance = 0;
+        double maxVerticalDistance = 0;
+        for (int i = 0; i < positions.size; i++) {
+            horizontalDistances[i] = Math.abs(positions.x[i] - comparisonPoint.x) * horizontalWeight;
+            verticalDistances[i] = Math.abs(positions.y[i] - comparisonPoint.y) * verticalWeight;
+            maxHorizontalDistance = Math.max(maxHorizontalDistance, horizontalDistances[i]);
+            maxVerticalDistance = Math.max(maxVerticalDistance, verticalDistances[i]);
+        }
+
+        long[] offsets = new long[positions.size];
+        for (int i = 0; i < positions.size; i++) {
+            // A zero extent means every child sits on the same line, that axis adds no delay.
+            double normalizedHorizontalDistance = maxHorizontalDistance > 0
+                    ? horizontalDistances[i] / maxHorizontalDistance : 0;
+            double normalizedVerticalDistance = maxVerticalDistance > 0
+                    ? verticalDistances[i] / maxVerticalDistance : 0;
+            long offset = Math.round(duration * (normalizedHorizontalDistance * horizontalWeight + normalizedVerticalDistance * verticalWeight));
 
             if (reversed) {
                 offset = duration - (offset / 2);
             }
 
-            timedViews.add(new SpruceTimedView(view, offset));
+            offsets[i] = offset;
         }
-
-        return timedViews;
+        return offsets;
     }
 
-    @Override
-    public void sortChildren(ViewGroup parent, List<View> children) {
-        // Do nothing
-    }
-
-    @VisibleForTesting
-    double calculateMaxDistance(double leftHorizontalDistance, double rightHorizontalDistance, double maximum) {
-        if (leftHorizontalDistance > rightHorizontalDistance && leftHorizontalDistance > maximum) {
-            maximum = leftHorizontalDistance;
-        } else if (rightHorizontalDistance > leftHorizontalDistance && rightHorizontalDistance > maximum) {
-            maximum = rightHorizontalDistance;
+    private static List<SpruceTimedView> getTimedViews(ChildPositions positions, int[] order,
+                                                       long[] offsets) {
+        List<SpruceTimedView> timedViews = new ArrayList<>(positions.size);
+        for (int index : order) {
+            timedViews.add(new SpruceTimedView(positions.views[index], offsets[index]));
         }
-        return maximum;
+        return timedViews;
     }
 
 }
\ No newline at end of file
@@ -27,8 +27,6 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 public class CorneredSort extends DistancedSort {
@@ -64,36 +62,29 @@ public class CorneredSort extends DistancedSort {
     @Override
     public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
-        List<SpruceTimedView> timedViews = new ArrayList<>();
-        long currentTimeOffset = 0;
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        return getTimedViews(positions, positions.identity(), comparisonPoint);
+    }
 
-        double lastDistance = 0;
-        for (View view : children) {
-            double viewDistance = getDistanceBetweenPoints(Utils.viewToPoint(view), comparisonPoint);
-            if (Math.floor(lastDistance) != Math.floor(viewDistance)) {
-                lastDistance = viewDistance;
-                currentTimeOffset += interObjectDelay;
-            }
-            timedViews.add(new SpruceTimedView(view, currentTimeOffset));
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        if (!canSortInOnePass(CorneredSort.class)) {
+            sortChildren(parent, children);
+            return getViewListWithTimeOffsets(parent, children);
         }
-
-        return timedViews;
+        final PointF comparisonPoint = getDistancePoint(parent, children);
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        int[] order = positions.orderByKey(getCornerDistances(positions, comparisonPoint), reversed);
+        positions.apply(order, children);
+        return getTimedViews(positions, order, comparisonPoint);
     }
 
     @Override
     public void sortChildren(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
-        Collections.sort(children, new Comparator<View>() {
-            @Override
-            public int compare(View left, View right) {
-                double leftDistance = Math.abs(comparisonPoint.x - left.getX()) + Math.abs(comparisonPoint.y - left.getY());
-                double rightDistance = Math.abs(comparisonPoint.x - right.getX()) + Math.abs(comparisonPoint.y - right.getY());
-                if (reversed) {
-                    return Double.compare(rightDistance, leftDistance);
-                }
-                return Double.compare(leftDistance, rightDistance);
-            }
-        });
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        positions.apply(positions.orderByKey(getCornerDistances(positions, comparisonPoint), reversed),
+                children);
     }
 
     @Override
@@ -120,4 +111,43 @@ public class CorneredSort extends DistancedSort {
         return distancePoint;
     }
 
+    /**
+     * Find the distance of every child to the corner, moving only horizontally and vertically.
+     * With the default {@link PositionStrategy#TOP_LEFT} the children are ordered by their exact
+     * position rather than the rounded one, so children less than a pixel apart keep their order.
+     */
+    private double[] getCornerDistances(ChildPositions positions, PointF comparisonPoint) {
+        boolean exact = getPositionStrategy() == PositionStrategy.TOP_LEFT;
+        double[] distances = new double[positions.size];
+        for (int i = 0; i < positions.size; i++) {
+            double x = exact ? positions.views[i].getX() : positions.x[i];
+            double y = exact ? positions.views[i].getY() : positions.y[i];
+            distances[i] = Math.abs(comparisonPoint.x - x) + Math.abs(comparisonPoint.y - y);
+        }
+        return distances;
+    }
+
+    /**
+     * Walk the children in the given order, adding the inter object delay every time the whole
+     * part of the distance to the corner changes.
+     */
+    private List<SpruceTimedView> getTimedViews(ChildPositions positions, int[] order,
+                                                PointF comparisonPoint) {
+        double[] distances = getDistances(positions, comparisonPoint);
+        List<SpruceTimedView> timedViews = new ArrayList<>(positions.size);
+        long currentTimeOffset = 0;
+
+        double lastDistance = 0;
+        for (int index : order) {
+            double viewDistance = distances[index];
+            if (Math.floor(lastDistance) != Math.floor(viewDistance)) {
+                lastDistance = viewDistance;
+                currentTimeOffset += interObjectDelay;
+            }
+            timedViews.add(new SpruceTimedView(positions.views[index], currentTimeOffset));
+        }
+
+        return timedViews;
+    }
+
 }
@@ -27,8 +27,6 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -53,35 +51,30 @@ class DistancedSort extends SortFunction {
     @Override
     public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
-        double lastDistance = getDistanceBetweenPoints(Utils.viewToPoint(children.get(0)), comparisonPoint);
-        long currentTimeOffset = 0L;
-        List<SpruceTimedView> childViews = new ArrayList<>();
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        double[] distances = getDistances(positions, comparisonPoint);
+        return getTimedViews(positions, positions.identity(), distances);
+    }
 
-        for (View childView : children) {
-            if (lastDistance != getDistanceBetweenPoints(Utils.viewToPoint(childView), comparisonPoint)) {
-                lastDistance = getDistanceBetweenPoints(Utils.viewToPoint(childView), comparisonPoint);
-                currentTimeOffset += interObjectDelay;
-            }
-            childViews.add(new SpruceTimedView(childView, currentTimeOffset));
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        if (!canSortInOnePass(DistancedSort.class)) {
+            sortChildren(parent, children);
+            return getViewListWithTimeOffsets(parent, children);
         }
-
-        return childViews;
+        final PointF comparisonPoint = getDistancePoint(parent, children);
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        double[] distances = getDistances(positions, comparisonPoint);
+        int[] order = positions.orderByKey(distances, reversed);
+        positions.apply(order, children);
+        return getTimedViews(positions, order, distances);
     }
 
     @Override
     public void sortChildren(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
-        Collections.sort(children, new Comparator<View>() {
-            @Override
-            public int compare(View left, View right) {
-                double leftDistance = getDistanceBetweenPoints(Utils.viewToPoint(left), comparisonPoint);
-                double rightDistance = getDistanceBetweenPoints(Utils.viewToPoint(right), comparisonPoint);
-                if (reversed) {
-                    return Double.compare(rightDistance, leftDistance);
-                }
-                return Double.compare(leftDistance, rightDistance);
-            }
-        });
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        positions.sortByKey(children, getDistances(positions, comparisonPoint), reversed);
     }
 
     /**
@@ -108,22 +101,80 @@ class DistancedSort extends SortFunction {
     }
 
     /**
-     * Return the view that is the closest to the distancePoint
+     * Return the view that is the closest to the distancePoint. The children are scanned once and
+     * the list is left in its current order. When several children are equally close, the first
+     * one in the list wins. Without children the distance point itself is returned.
      *
      * @param distancePoint Point for comparison
      * @param children List of Views to compare
      * @return Point closet to the distance point
      */
     PointF translate(final PointF distancePoint, List<View> children) {
-        Collections.sort(children, new Comparator<View>() {
-            @Override
-            public int compare(View left, View right) {
-                double leftDistance = getDistanceBetweenPoints(Utils.viewToPoint(left), distancePoint);
-                double rightDistance = getDistanceBetweenPoints(Utils.viewToPoint(right), distancePoint);
-                return Double.compare(leftDistance, rightDistance);
+        if (children.isEmpty()) {
+            return new PointF(distancePoint.x, distancePoint.y);
+        }
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        int nearest = findNearest(positions, distancePoint);
+        return new PointF(positions.x[nearest], positions.y[nearest]);
+    }
+
+    /**
+     * Single pass search for the child closest to a point.
+     *
+     * @return snapshot index of the first child with the smallest distance to the point
+     */
+    private int findNearest(ChildPositions positions, PointF point) {
+        PointF childPoint = new PointF();
+        int nearest = 0;
+        double nearestDistance = Double.NaN;
+        for (int i = 0; i < positions.size; i++) {
+            childPoint.set(positions.x[i], positions.y[i]);
+            double distance = getDistanceBetweenPoints(childPoint, point);
+            if (i == 0 || Double.compare(distance, nearestDistance) < 0) {
+                nearest = i;
+                nearestDistance = distance;
             }
-        });
-        return Utils.viewToPoint(children.get(0));
+        }
+        return nearest;
+    }
+
+    /**
+     * Walk the children in the given order, adding the inter object delay every time the
+     * distance changes.
+     */
+    private List<SpruceTimedView> getTimedViews(ChildPositions positions, int[] order,
+                                                double[] distances) {
+        List<SpruceTimedView> childViews = new ArrayList<>(positions.size);
+        long currentTimeOffset = 0L;
+        double lastDistance = positions.size > 0 ? distances[order[0]] : 0;
+
+        for (int index : order) {
+            if (lastDistance != distances[index]) {
+                lastDistance = distances[index];
+                currentTimeOffset += interObjectDelay;
+            }
+            childViews.add(new SpruceTimedView(positions.views[index], currentTimeOffset));
+        }
+
+        return childViews;
+    }
+
+    /**
+     * Find the distance of every child to a point, calling
+     * {@link #getDistanceBetweenPoints(PointF, PointF)} once per child.
+     *
+     * @param positions snapshot of the child positions
+     * @param point PointF to measure from
+     * @return distance of each child in the snapshot to the point
+     */
+    double[] getDistances(ChildPositions positions, PointF point) {
+        double[] distances = new double[positions.size];
+        PointF childPoint = new PointF();
+        for (int i = 0; i < positions.size; i++) {
+            childPoint.set(positions.x[i], positions.y[i]);
+            distances[i] = getDistanceBetweenPoints(childPoint, point);
+        }
+        return distances;
     }
 
 }
\ No newline at end of file
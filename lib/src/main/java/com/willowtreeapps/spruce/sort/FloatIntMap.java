@@ -0,0 +1,101 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+/**
+ * Minimal open addressing map from float keys to int values. Keys are compared by their bit
+ * pattern, which matches the equality used by {@link Float#compare(float, float)}.
+ */
+final class FloatIntMap {
+
+    private static final int MISSING = -1;
+
+    private final int[] keys;
+    private final int[] values;
+    private final boolean[] used;
+    private final int mask;
+    private int size;
+
+    /**
+     * @param expectedSize number of keys the map has to hold without growing
+     */
+    FloatIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return number of keys in the map
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param key key to look up
+     * @return the value stored for the key, or -1 when the key is not in the map
+     */
+    int get(float key) {
+        int bits = Float.floatToIntBits(key);
+        for (int slot = slot(bits); used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == bits) {
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Stores a value for the key, replacing any previous value. The map never grows, once half
+     * of its slots are in use new keys are refused.
+     *
+     * @param key key to store
+     * @param value value to store, must not be negative
+     * @return false when the key is new and the map is already full
+     */
+    boolean put(float key, int value) {
+        int bits = Float.floatToIntBits(key);
+        int slot = slot(bits);
+        for (; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == bits) {
+                values[slot] = value;
+                return true;
+            }
+        }
+        if (size >= keys.length / 2) {
+            return false;
+        }
+        used[slot] = true;
+        keys[slot] = bits;
+        values[slot] = value;
+        size++;
+        return true;
+    }
+
+    private int slot(int bits) {
+        int hash = bits * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
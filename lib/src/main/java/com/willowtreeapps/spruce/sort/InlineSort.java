@@ -28,7 +28,6 @@ import android.view.ViewGroup;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 public class InlineSort extends CorneredSort {
@@ -49,6 +48,12 @@ public class InlineSort extends CorneredSort {
         this.reversed = reversed;
     }
 
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        sortChildren(parent, children);
+        return getViewListWithTimeOffsets(parent, children);
+    }
+
     @Override
     public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
         List<SpruceTimedView> timedViews = new ArrayList<>();
@@ -69,22 +74,14 @@ public class InlineSort extends CorneredSort {
     @Override
     public void sortChildren(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
-        Collections.sort(children, new Comparator<View>() {
-            @Override
-            public int compare(View left, View right) {
-                double leftHorizontalDistance = Utils.horizontalDistance(comparisonPoint, Utils.viewToPoint(left));
-                double leftVerticalDistance = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(left));
-                double rightHorizontalDistance = Utils.horizontalDistance(comparisonPoint, Utils.viewToPoint(right));
-                double rightVerticalDistance = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(right));
-
-                if (leftVerticalDistance < rightVerticalDistance ||
-                        leftVerticalDistance == rightVerticalDistance &&
-                                leftHorizontalDistance < rightHorizontalDistance) {
-                    return -1;
-                }
-                return 1;
-            }
-        });
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        float[] horizontalDistances = new float[positions.size];
+        float[] verticalDistances = new float[positions.size];
+        for (int i = 0; i < positions.size; i++) {
+            horizontalDistances[i] = Math.abs(positions.x[i] - comparisonPoint.x);
+            verticalDistances[i] = Math.abs(positions.y[i] - comparisonPoint.y);
+        }
+        positions.apply(positions.orderByKeys(verticalDistances, horizontalDistances), children);
     }
 
 }
\ No newline at end of file
@@ -56,7 +56,6 @@ public class LinearSort extends DistancedSort {
 
     @Override
     public PointF getDistancePoint(ViewGroup parent, List<View> children) {
-        PointF point = super.getDistancePoint(parent, children);
         switch (direction) {
             case TOP_TO_BOTTOM:
                 return new PointF(parent.getWidth() / 2.0F, 0F);
@@ -0,0 +1,106 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.view.View;
+
+import java.util.List;
+
+/**
+ * Decides which point of a child the sort functions measure distances from. Positions are
+ * written straight into primitive arrays, so reading them does not allocate per child.
+ *
+ * <p>Implement {@link #getX(View)} and {@link #getY(View)} for a custom reference point, or use
+ * {@link #fractional(float, float)} for a point relative to the child's bounds.</p>
+ */
+public abstract class PositionStrategy {
+
+    /**
+     * The top left corner of the child, rounded to whole pixels. This is the default and matches
+     * {@link Utils#viewToPoint(View)}.
+     */
+    public static final PositionStrategy TOP_LEFT = new PositionStrategy() {
+        @Override
+        public float getX(View view) {
+            return Math.round(view.getX());
+        }
+
+        @Override
+        public float getY(View view) {
+            return Math.round(view.getY());
+        }
+    };
+
+    /**
+     * The center of the child, which gives the expected order when children differ in size.
+     */
+    public static final PositionStrategy CENTER = fractional(0.5f, 0.5f);
+
+    /**
+     * A point relative to the bounds of the child.
+     *
+     * @param fractionX 0 for the left edge, 1 for the right edge
+     * @param fractionY 0 for the top edge, 1 for the bottom edge
+     * @return strategy for that point
+     */
+    public static PositionStrategy fractional(final float fractionX, final float fractionY) {
+        return new PositionStrategy() {
+            @Override
+            public float getX(View view) {
+                return view.getX() + view.getWidth() * fractionX;
+            }
+
+            @Override
+            public float getY(View view) {
+                return view.getY() + view.getHeight() * fractionY;
+            }
+        };
+    }
+
+    /**
+     * @param view child to measure
+     * @return x coordinate of the child's reference point, in the parent's coordinate space
+     */
+    public abstract float getX(View view);
+
+    /**
+     * @param view child to measure
+     * @return y coordinate of the child's reference point, in the parent's coordinate space
+     */
+    public abstract float getY(View view);
+
+    /**
+     * Writes the reference point of every child into the buffers, at the child's index.
+     *
+     * @param children children to measure
+     * @param x buffer for the x coordinates, at least as long as the list of children
+     * @param y buffer for the y coordinates, at least as long as the list of children
+     */
+    public void getPositions(List<View> children, float[] x, float[] y) {
+        for (int i = 0; i < children.size(); i++) {
+            View view = children.get(i);
+            x[i] = getX(view);
+            y[i] = getY(view);
+        }
+    }
+
+}
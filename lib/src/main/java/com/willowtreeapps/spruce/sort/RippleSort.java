@@ -0,0 +1,202 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.graphics.PointF;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ripples the animation out from an arbitrary point, such as where the user touched. The delay of
+ * each child grows continuously with the distance from the point to the child's center, so the
+ * farthest child starts after the whole duration. A different point of the children can be used
+ * with {@link #setPositionStrategy(PositionStrategy)}.
+ *
+ * <p>Child positions come from a {@link SpatialIndex} that is kept while the layout is unchanged.
+ * Moving the point with {@link #retarget(float, float)} sorts starting from the previous order,
+ * which the merge sort gets through in close to linear time when the point moves a little.</p>
+ */
+public class RippleSort extends SortFunction {
+
+    private final long duration;
+    private final boolean reversed;
+    private float originX;
+    private float originY;
+
+    // Order from the last sort, repaired on the next one when the layout did not change.
+    private SpatialIndex sortedIndex;
+    private int[] sortedOrder;
+
+    /**
+     * Ripples out from a point in the parent's coordinate space.
+     *
+     * @param duration delay of the child farthest away from the point
+     * @param reversed flag to ripple inwards, towards the point
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     */
+    public RippleSort(long duration, boolean reversed, float x, float y) {
+        this.duration = duration;
+        this.reversed = reversed;
+        this.originX = x;
+        this.originY = y;
+        setPositionStrategy(PositionStrategy.CENTER);
+    }
+
+    /**
+     * Ripples out from a touch. The event has to be delivered to the parent that is animated, so
+     * its coordinates are in the parent's coordinate space.
+     *
+     * @param duration delay of the child farthest away from the touch
+     * @param reversed flag to ripple inwards, towards the touch
+     * @param event touch on the parent
+     */
+    public RippleSort(long duration, boolean reversed, MotionEvent event) {
+        this(duration, reversed, event.getX(), event.getY());
+    }
+
+    /**
+     * @return the point the ripple starts from
+     */
+    public PointF getOrigin() {
+        return new PointF(originX, originY);
+    }
+
+    /**
+     * Moves the point the ripple starts from, for instance when the finger moves while the
+     * animation is running. The order of the last sort is repaired for the new point.
+     *
+     * @param x x coordinate of the new point
+     * @param y y coordinate of the new point
+     * @return the children of the last sort with their offsets from the new point
+     * @throws IllegalStateException if nothing has been sorted yet
+     */
+    public List<SpruceTimedView> retarget(float x, float y) {
+        if (sortedIndex == null) {
+            throw new IllegalStateException("Children have to be sorted before the ripple can be retargeted");
+        }
+        originX = x;
+        originY = y;
+        double[] distances = getDistances(sortedIndex);
+        sortByDistance(sortedOrder, distances);
+        return getTimedViews(sortedIndex, sortedOrder, distances);
+    }
+
+    @Override
+    public void sortChildren(ViewGroup parent, List<View> children) {
+        SpatialIndex spatialIndex = getSpatialIndex(parent, children);
+        apply(spatialIndex, sort(spatialIndex, getDistances(spatialIndex)), children);
+    }
+
+    @Override
+    public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
+        SpatialIndex spatialIndex = getSpatialIndex(parent, children);
+        int[] order = new int[spatialIndex.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        return getTimedViews(spatialIndex, order, getDistances(spatialIndex));
+    }
+
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        if (!canSortInOnePass(RippleSort.class)) {
+            sortChildren(parent, children);
+            return getViewListWithTimeOffsets(parent, children);
+        }
+        SpatialIndex spatialIndex = getSpatialIndex(parent, children);
+        double[] distances = getDistances(spatialIndex);
+        int[] order = sort(spatialIndex, distances);
+        apply(spatialIndex, order, children);
+        return getTimedViews(spatialIndex, order, distances);
+    }
+
+    /**
+     * Orders the children by distance, starting from the previous order when the layout is the
+     * same as last time.
+     */
+    private int[] sort(SpatialIndex spatialIndex, double[] distances) {
+        if (spatialIndex != sortedIndex) {
+            sortedIndex = spatialIndex;
+            sortedOrder = new int[spatialIndex.size()];
+            for (int i = 0; i < sortedOrder.length; i++) {
+                sortedOrder[i] = i;
+            }
+        }
+        sortByDistance(sortedOrder, distances);
+        return sortedOrder.clone();
+    }
+
+    private double[] getDistances(SpatialIndex spatialIndex) {
+        double[] distances = new double[spatialIndex.size()];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = spatialIndex.distance(i, originX, originY);
+        }
+        return distances;
+    }
+
+    /**
+     * Spread the children over the duration in proportion to their distance.
+     */
+    private List<SpruceTimedView> getTimedViews(SpatialIndex spatialIndex, int[] order,
+                                                double[] distances) {
+        double maxDistance = 0;
+        for (double distance : distances) {
+            maxDistance = Math.max(maxDistance, distance);
+        }
+
+        List<SpruceTimedView> timedViews = new ArrayList<>(order.length);
+        for (int index : order) {
+            double normalizedDistance = maxDistance > 0 ? distances[index] / maxDistance : 0;
+            if (reversed) {
+                normalizedDistance = 1 - normalizedDistance;
+            }
+            long offset = Math.round(duration * normalizedDistance);
+            timedViews.add(new SpruceTimedView(spatialIndex.getView(index), offset));
+        }
+        return timedViews;
+    }
+
+    private static void apply(SpatialIndex spatialIndex, int[] order, List<View> children) {
+        for (int i = 0; i < order.length; i++) {
+            children.set(i, spatialIndex.getView(order[i]));
+        }
+    }
+
+    /**
+     * Sorts by distance, then by index, so the result doesn't depend on the order it starts from.
+     */
+    private static void sortByDistance(int[] order, final double[] distances) {
+        ChildPositions.sort(order, new ChildPositions.IndexComparator() {
+            @Override
+            public int compare(int left, int right) {
+                int result = Double.compare(distances[left], distances[right]);
+                return result != 0 ? result : Integer.compare(left, right);
+            }
+        });
+    }
+
+}
@@ -28,7 +28,6 @@ import android.view.ViewGroup;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 public class SnakeSort extends CorneredSort {
@@ -49,48 +48,30 @@ public class SnakeSort extends CorneredSort {
         this.reversed = reversed;
     }
 
+    @Override
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        if (!canSortInOnePass(SnakeSort.class)) {
+            sortChildren(parent, children);
+        }
+        // The snake order is worked out together with the offsets.
+        return getViewListWithTimeOffsets(parent, children);
+    }
+
     @Override
     public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children) {
         final PointF comparisonPoint = getDistancePoint(parent, children);
         List<SpruceTimedView> timedViews = new ArrayList<>();
         long currentTimeOffset = 0;
 
-        // Calculate all possible vertical distances from the point of comparison.
-        final List<Float> verticalDistances = new ArrayList<>();
-        for (View child: children) {
-            float d = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(child));
-            if (!verticalDistances.contains(d)) {
-                verticalDistances.add(d);
-            }
+        ChildPositions positions = new ChildPositions(children, getPositionStrategy());
+        float[] horizontalDistances = new float[positions.size];
+        float[] rowDistances = new float[positions.size];
+        for (int i = 0; i < positions.size; i++) {
+            horizontalDistances[i] = Math.abs(positions.x[i] - comparisonPoint.x);
+            rowDistances[i] = Math.abs(positions.y[i] - comparisonPoint.y);
         }
 
-        // Sort these so we can find the row index by the vertical distance.
-        Collections.sort(verticalDistances);
-
-        Collections.sort(children, new Comparator<View>() {
-            @Override
-            public int compare(View left, View right) {
-                double leftHorizontalDistance = Utils.horizontalDistance(comparisonPoint, Utils.viewToPoint(left));
-                double leftVerticalDistance = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(left));
-                double rightHorizontalDistance = Utils.horizontalDistance(comparisonPoint, Utils.viewToPoint(right));
-                double rightVerticalDistance = Utils.verticalDistance(comparisonPoint, Utils.viewToPoint(right));
-
-                // Difference in vertical distance takes priority.
-                if (leftVerticalDistance < rightVerticalDistance) {
-                    return -1;
-                } else if (leftVerticalDistance > rightVerticalDistance) {
-                    return 1;
-                }
-
-                // If the are in the same row, find the row index.
-                int row = verticalDistances.indexOf((float) leftVerticalDistance);
-                if (leftHorizontalDistance < rightHorizontalDistance) {
-                    return row % 2 == 0 ? -1: 1;
-                } else {
-                    return row % 2 == 0 ? 1: -1;
-                }
-            }
-        });
+        positions.apply(getSnakeOrder(positions, rowDistances, horizontalDistances), children);
 
         if (reversed) {
             Collections.reverse(children);
@@ -104,5 +85,40 @@ public class SnakeSort extends CorneredSort {
         return timedViews;
     }
 
+    /**
+     * Orders the children row by row, alternating the horizontal direction. Every child's row
+     * index is looked up once before sorting. Grid like layouts are then ordered by bucket, with
+     * the columns counted into place first, mirrored on every other row, and the rows after that.
+     */
+    private static int[] getSnakeOrder(ChildPositions positions, float[] rowDistances,
+                                       final float[] horizontalDistances) {
+        final ChildPositions.Buckets rows = positions.ranks(rowDistances);
+        ChildPositions.Buckets columns = positions.buckets(horizontalDistances);
+        if (columns == null) {
+            return positions.order(new ChildPositions.IndexComparator() {
+                @Override
+                public int compare(int left, int right) {
+                    // Difference in vertical distance takes priority.
+                    int row = rows.bucket[left];
+                    int result = Integer.compare(row, rows.bucket[right]);
+                    if (result != 0) {
+                        return result;
+                    }
+
+                    result = Float.compare(horizontalDistances[left], horizontalDistances[right]);
+                    return row % 2 == 0 ? result : -result;
+                }
+            });
+        }
+
+        int[] column = new int[positions.size];
+        for (int i = 0; i < positions.size; i++) {
+            column[i] = rows.bucket[i] % 2 == 0
+                    ? columns.bucket[i]
+                    : columns.count - 1 - columns.bucket[i];
+        }
+        int[] order = ChildPositions.orderByBucket(positions.identity(), column, columns.count, false);
+        return ChildPositions.orderByBucket(order, rows.bucket, rows.count, false);
+    }
 
 }
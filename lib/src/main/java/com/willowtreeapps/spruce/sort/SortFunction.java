@@ -29,6 +29,12 @@ import java.util.List;
 
 public abstract class SortFunction {
 
+    private PositionStrategy positionStrategy = PositionStrategy.TOP_LEFT;
+    private SpatialIndex spatialIndex;
+    // Last answer of canSortInOnePass and the class it was given.
+    private Class<?> onePassClass;
+    private boolean onePass;
+
     /**
      * Sorts the children that will be animated in the view.
      *
@@ -46,4 +52,94 @@ public abstract class SortFunction {
      */
     public abstract List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent, List<View> children);
 
+    /**
+     * Sorts the children and gets their time offsets in a single call. The default implementation
+     * runs {@link #sortChildren(ViewGroup, List)} followed by
+     * {@link #getViewListWithTimeOffsets(ViewGroup, List)}. Sorts that can measure every child once
+     * and derive both the order and the offsets from it override this, and go back to the two
+     * calls when a subclass overrides either of them, see {@link #canSortInOnePass(Class)}.
+     *
+     * @param parent ViewGroup parent of the collection of child views
+     * @param children The children to be sorted, left in their sorted order
+     * @return List of SpruceTimedView objects that contain the view and it's offset
+     */
+    public List<SpruceTimedView> sortWithTimeOffsets(ViewGroup parent, List<View> children) {
+        sortChildren(parent, children);
+        return getViewListWithTimeOffsets(parent, children);
+    }
+
+    /**
+     * Whether the {@link #sortWithTimeOffsets(ViewGroup, List)} override of the given class can
+     * skip {@link #sortChildren(ViewGroup, List)} and
+     * {@link #getViewListWithTimeOffsets(ViewGroup, List)}, that is whether neither of them is
+     * overridden by a subclass of it. When this is false the override should call them instead.
+     *
+     * @param sortClass class declaring the single pass override
+     * @return true if both methods of this sort are the ones the class knows about
+     */
+    protected final boolean canSortInOnePass(Class<? extends SortFunction> sortClass) {
+        if (onePassClass != sortClass) {
+            onePass = !isOverriddenBelow(sortClass, "sortChildren")
+                    && !isOverriddenBelow(sortClass, "getViewListWithTimeOffsets");
+            onePassClass = sortClass;
+        }
+        return onePass;
+    }
+
+    private boolean isOverriddenBelow(Class<?> sortClass, String methodName) {
+        for (Class<?> c = getClass(); c != null && c != sortClass; c = c.getSuperclass()) {
+            try {
+                // Public sorts extending a package private one get bridges for its methods,
+                // those are not overrides.
+                if (!c.getDeclaredMethod(methodName, ViewGroup.class, List.class).isBridge()) {
+                    return true;
+                }
+            } catch (NoSuchMethodException e) {
+                // Not declared by this class
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets which point of each child distances are measured from. Defaults to
+     * {@link PositionStrategy#TOP_LEFT}.
+     *
+     * @param positionStrategy the point of each child to use
+     * @return this sort function
+     */
+    public SortFunction setPositionStrategy(PositionStrategy positionStrategy) {
+        if (positionStrategy == null) {
+            throw new NullPointerException("PositionStrategy can't be null");
+        }
+        this.positionStrategy = positionStrategy;
+        return this;
+    }
+
+    /**
+     * @return the point of each child distances are measured from
+     */
+    public PositionStrategy getPositionStrategy() {
+        return positionStrategy;
+    }
+
+    /**
+     * Gets a {@link SpatialIndex} over the children, positioned with the
+     * {@link #getPositionStrategy() position strategy}, for sorts that order the children from an
+     * arbitrary point or only need the children near it. The index is kept and reused until the
+     * strategy, the parent size or the position, size or order of the children changes.
+     *
+     * @param parent ViewGroup parent of the collection of child views
+     * @param children List of views to index
+     * @return index over the children, in the order they were passed in
+     */
+    protected SpatialIndex getSpatialIndex(ViewGroup parent, List<View> children) {
+        long signature = Utils.layoutSignature(parent, children);
+        if (spatialIndex == null || spatialIndex.signature != signature
+                || spatialIndex.positionStrategy != positionStrategy) {
+            spatialIndex = new SpatialIndex(children, positionStrategy, signature);
+        }
+        return spatialIndex;
+    }
+
 }
@@ -0,0 +1,409 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the positions of a set of children. It answers nearest, k-nearest and range
+ * queries from any point by visiting only the cells around that point, and sorts the children by
+ * their distance to any point, so sorts are not limited to fixed anchors.
+ *
+ * <p>Children are referred to by their index in the list the index was built from. Distances are
+ * euclidean, and children at the same distance are ordered by index.</p>
+ *
+ * <p>Subclasses of {@link SortFunction} get an index that is rebuilt only when the layout changes
+ * from {@link SortFunction#getSpatialIndex(ViewGroup, List)}.</p>
+ */
+public final class SpatialIndex {
+
+    /**
+     * Average number of children per cell the grid is sized for.
+     */
+    private static final int CHILDREN_PER_CELL = 2;
+
+    final long signature;
+    final PositionStrategy positionStrategy;
+
+    private final int size;
+    private final View[] views;
+    private final float[] x;
+    private final float[] y;
+
+    private final float left;
+    private final float top;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    // Children of cell c are cellChildren[cellStart[c]] up to cellChildren[cellStart[c + 1]].
+    private final int[] cellStart;
+    private final int[] cellChildren;
+
+    /**
+     * Builds an index over the centers of the children, see {@link PositionStrategy#CENTER}.
+     *
+     * @param parent ViewGroup parent of the children
+     * @param children children to index
+     * @return the index
+     */
+    public static SpatialIndex build(ViewGroup parent, List<View> children) {
+        return build(parent, children, PositionStrategy.CENTER);
+    }
+
+    /**
+     * Builds an index over the children, positioned with the given strategy.
+     *
+     * @param parent ViewGroup parent of the children
+     * @param children children to index
+     * @param positionStrategy point of each child to index
+     * @return the index
+     */
+    public static SpatialIndex build(ViewGroup parent, List<View> children,
+                                     PositionStrategy positionStrategy) {
+        return new SpatialIndex(children, positionStrategy,
+                Utils.layoutSignature(parent, children));
+    }
+
+    SpatialIndex(List<View> children, PositionStrategy positionStrategy, long signature) {
+        this.signature = signature;
+        this.positionStrategy = positionStrategy;
+        size = children.size();
+        views = new View[size];
+        x = new float[size];
+        y = new float[size];
+        positionStrategy.getPositions(children, x, y);
+
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            views[i] = children.get(i);
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        if (size == 0) {
+            left = 0;
+            top = 0;
+            cellSize = 1;
+            columns = 1;
+            rows = 1;
+        } else {
+            float width = maxX - minX;
+            float height = maxY - minY;
+            double area = (double) width * height;
+            double cell = area > 0
+                    ? Math.sqrt(area * CHILDREN_PER_CELL / size)
+                    : Math.max(width, height) * CHILDREN_PER_CELL / (double) size;
+            // Never use more columns or rows than there are children.
+            cell = Math.max(cell, Math.max(width, height) / (double) size);
+            left = minX;
+            top = minY;
+            cellSize = (float) Math.max(cell, 1);
+            columns = Math.min(size, (int) (width / cellSize) + 1);
+            rows = Math.min(size, (int) (height / cellSize) + 1);
+        }
+
+        cellStart = new int[columns * rows + 1];
+        cellChildren = new int[size];
+        int[] cells = new int[size];
+        for (int i = 0; i < size; i++) {
+            cells[i] = row(y[i]) * columns + column(x[i]);
+            cellStart[cells[i] + 1]++;
+        }
+        for (int c = 1; c < cellStart.length; c++) {
+            cellStart[c] += cellStart[c - 1];
+        }
+        int[] next = new int[columns * rows];
+        System.arraycopy(cellStart, 0, next, 0, next.length);
+        for (int i = 0; i < size; i++) {
+            cellChildren[next[cells[i]]++] = i;
+        }
+    }
+
+    /**
+     * @return number of indexed children
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the child
+     * @return the child view
+     */
+    public View getView(int index) {
+        return views[index];
+    }
+
+    /**
+     * @param index index of the child
+     * @return x coordinate of the child's position
+     */
+    public float getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * @param index index of the child
+     * @return y coordinate of the child's position
+     */
+    public float getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * @param index index of the child
+     * @param pointX x coordinate of the point
+     * @param pointY y coordinate of the point
+     * @return euclidean distance from the child's position to the point
+     */
+    public double distance(int index, float pointX, float pointY) {
+        return Math.sqrt(squaredDistance(index, pointX, pointY));
+    }
+
+    /**
+     * Finds the child closest to a point.
+     *
+     * @param pointX x coordinate of the point
+     * @param pointY y coordinate of the point
+     * @return index of the closest child, or -1 when there are no children
+     */
+    public int nearest(float pointX, float pointY) {
+        int[] nearest = nearest(pointX, pointY, 1);
+        return nearest.length > 0 ? nearest[0] : -1;
+    }
+
+    /**
+     * Finds the k children closest to a point.
+     *
+     * @param pointX x coordinate of the point
+     * @param pointY y coordinate of the point
+     * @param k number of children to find
+     * @return indices of at most k children, closest first
+     */
+    public int[] nearest(float pointX, float pointY, int k) {
+        k = Math.min(k, size);
+        if (k <= 0) {
+            return new int[0];
+        }
+
+        // Max heap of the best candidates so far, the worst one on top.
+        int[] heap = new int[k];
+        double[] heapDistances = new double[k];
+        int count = 0;
+
+        int column = column(pointX);
+        int row = row(pointY);
+        for (int ring = 0; ; ring++) {
+            double bound = ringBound(ring, column, row, pointX, pointY);
+            if (bound == Double.POSITIVE_INFINITY
+                    || count == k && bound * bound > heapDistances[0]) {
+                break;
+            }
+            for (int cellRow = Math.max(0, row - ring); cellRow <= Math.min(rows - 1, row + ring); cellRow++) {
+                boolean edgeRow = Math.abs(cellRow - row) == ring;
+                int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (int cellColumn = column - ring; cellColumn <= column + ring; cellColumn += step) {
+                    if (cellColumn < 0 || cellColumn >= columns) {
+                        continue;
+                    }
+                    int cell = cellRow * columns + cellColumn;
+                    for (int c = cellStart[cell]; c < cellStart[cell + 1]; c++) {
+                        int index = cellChildren[c];
+                        double distance = squaredDistance(index, pointX, pointY);
+                        if (count < k) {
+                            heap[count] = index;
+                            heapDistances[count] = distance;
+                            siftUp(heap, heapDistances, count++);
+                        } else if (isCloser(distance, index, heapDistances[0], heap[0])) {
+                            heap[0] = index;
+                            heapDistances[0] = distance;
+                            siftDown(heap, heapDistances, count);
+                        }
+                    }
+                }
+            }
+        }
+
+        sortByDistance(heap, pointX, pointY);
+        return heap;
+    }
+
+    /**
+     * Finds the children within a radius of a point.
+     *
+     * @param pointX x coordinate of the point
+     * @param pointY y coordinate of the point
+     * @param radius largest distance to include
+     * @return indices of the children within the radius, closest first
+     */
+    public int[] withinRadius(float pointX, float pointY, float radius) {
+        if (size == 0 || radius < 0) {
+            return new int[0];
+        }
+        int firstColumn = column(pointX - radius);
+        int lastColumn = column(pointX + radius);
+        int firstRow = row(pointY - radius);
+        int lastRow = row(pointY + radius);
+        double squaredRadius = (double) radius * radius;
+
+        int[] found = new int[size];
+        int count = 0;
+        for (int cellRow = firstRow; cellRow <= lastRow; cellRow++) {
+            for (int cellColumn = firstColumn; cellColumn <= lastColumn; cellColumn++) {
+                int cell = cellRow * columns + cellColumn;
+                for (int c = cellStart[cell]; c < cellStart[cell + 1]; c++) {
+                    int index = cellChildren[c];
+                    if (squaredDistance(index, pointX, pointY) <= squaredRadius) {
+                        found[count++] = index;
+                    }
+                }
+            }
+        }
+
+        int[] result = new int[count];
+        System.arraycopy(found, 0, result, 0, count);
+        sortByDistance(result, pointX, pointY);
+        return result;
+    }
+
+    /**
+     * Orders every child by its distance to a point.
+     *
+     * @param pointX x coordinate of the point
+     * @param pointY y coordinate of the point
+     * @return indices of all children, closest first
+     */
+    public int[] sortByDistance(float pointX, float pointY) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        sortByDistance(order, pointX, pointY);
+        return order;
+    }
+
+    private void sortByDistance(int[] indices, float pointX, float pointY) {
+        final double[] distances = new double[size];
+        for (int index : indices) {
+            distances[index] = squaredDistance(index, pointX, pointY);
+        }
+        // Sort by index first, so the stable sort breaks ties by index.
+        Arrays.sort(indices);
+        ChildPositions.sort(indices, new ChildPositions.IndexComparator() {
+            @Override
+            public int compare(int left, int right) {
+                return Double.compare(distances[left], distances[right]);
+            }
+        });
+    }
+
+    /**
+     * Lower bound on the distance from a point to any child in the given ring of cells or further
+     * out, or infinity when there are no cells that far out.
+     */
+    private double ringBound(int ring, int column, int row, float pointX, float pointY) {
+        if (ring == 0) {
+            return 0;
+        }
+        double bound = Double.POSITIVE_INFINITY;
+        if (column + ring < columns) {
+            bound = Math.min(bound, Math.max(0, left + (double) (column + ring) * cellSize - pointX));
+        }
+        if (column - ring >= 0) {
+            bound = Math.min(bound, Math.max(0, pointX - (left + (double) (column - ring + 1) * cellSize)));
+        }
+        if (row + ring < rows) {
+            bound = Math.min(bound, Math.max(0, top + (double) (row + ring) * cellSize - pointY));
+        }
+        if (row - ring >= 0) {
+            bound = Math.min(bound, Math.max(0, pointY - (top + (double) (row - ring + 1) * cellSize)));
+        }
+        return bound;
+    }
+
+    private int column(float pointX) {
+        int column = (int) Math.floor((pointX - left) / cellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(float pointY) {
+        int row = (int) Math.floor((pointY - top) / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private double squaredDistance(int index, float pointX, float pointY) {
+        double dx = x[index] - pointX;
+        double dy = y[index] - pointY;
+        return dx * dx + dy * dy;
+    }
+
+    private static boolean isCloser(double distance, int index, double otherDistance, int other) {
+        return distance < otherDistance || distance == otherDistance && index < other;
+    }
+
+    private static void siftUp(int[] heap, double[] distances, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!isCloser(distances[parent], heap[parent], distances[position], heap[position])) {
+                return;
+            }
+            swap(heap, distances, parent, position);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] distances, int count) {
+        int position = 0;
+        while (true) {
+            int worst = position;
+            for (int child = 2 * position + 1; child <= 2 * position + 2 && child < count; child++) {
+                if (isCloser(distances[worst], heap[worst], distances[child], heap[child])) {
+                    worst = child;
+                }
+            }
+            if (worst == position) {
+                return;
+            }
+            swap(heap, distances, worst, position);
+            position = worst;
+        }
+    }
+
+    private static void swap(int[] heap, double[] distances, int i, int j) {
+        int index = heap[i];
+        heap[i] = heap[j];
+        heap[j] = index;
+        double distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+    }
+
+}
@@ -24,6 +24,7 @@ package com.willowtreeapps.spruce.sort;
 
 import android.graphics.PointF;
 import android.view.View;
+import android.view.ViewGroup;
 
 import java.util.List;
 
@@ -75,4 +76,37 @@ class Utils {
         return new PointF(Math.round(view.getX()), Math.round(view.getY()));
     }
 
+    /**
+     * Hash of the parent size and the identity, position and size of every child, in order.
+     * Used to tell whether a layout changed since a result was computed for it.
+     *
+     * @param parent ViewGroup parent of the children
+     * @param children children in the order they will be sorted
+     * @return hash of the layout
+     */
+    static long layoutSignature(ViewGroup parent, List<View> children) {
+        long hash = mixHash(children.size(), parent.getWidth());
+        hash = mixHash(hash, parent.getHeight());
+        for (View child : children) {
+            hash = mixHash(hash, System.identityHashCode(child));
+            hash = mixHash(hash, Math.round(child.getX()));
+            hash = mixHash(hash, Math.round(child.getY()));
+            hash = mixHash(hash, child.getWidth());
+            hash = mixHash(hash, child.getHeight());
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes a value into a running 64 bit hash.
+     *
+     * @param hash hash so far
+     * @param value value to add
+     * @return the new hash
+     */
+    static long mixHash(long hash, int value) {
+        hash = (hash ^ value) * 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
 }
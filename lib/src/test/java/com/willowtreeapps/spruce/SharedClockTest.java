@@ -0,0 +1,114 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce;
+
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class SharedClockTest {
+
+    @Test
+    public void test_plays_explicit_start_values() {
+        View[] views = {newView(), newView()};
+
+        Assert.assertTrue(SharedClock.canPlay(
+                ObjectAnimator.ofFloat(null, View.TRANSLATION_X, 0f, 100f), views));
+        Assert.assertTrue(SharedClock.canPlay(
+                ObjectAnimator.ofFloat(null, "alpha", 0f, 1f), views));
+    }
+
+    @Test
+    public void test_rejects_start_values_read_from_the_children() {
+        View[] views = {newView(), newView()};
+        views[1].setTranslationX(50);
+
+        Assert.assertFalse(SharedClock.canPlay(
+                ObjectAnimator.ofFloat(null, View.TRANSLATION_X, 100f), views));
+    }
+
+    @Test
+    public void test_plays_missing_start_values_the_children_share() {
+        View[] views = {newView(), newView()};
+
+        Assert.assertTrue(SharedClock.canPlay(
+                ObjectAnimator.ofFloat(null, View.TRANSLATION_X, 100f), views));
+    }
+
+    @Test
+    public void test_rejects_what_it_cant_write_to_a_view() {
+        View[] views = {newView()};
+
+        Assert.assertFalse(SharedClock.canPlay(new Object(), views));
+        Assert.assertFalse(SharedClock.canPlay(
+                ObjectAnimator.ofFloat(null, "progress", 0f, 1f), views));
+        Assert.assertFalse(SharedClock.canPlay(
+                ObjectAnimator.ofInt(null, "scrollX", 0, 100), views));
+        ObjectAnimator repeating = ObjectAnimator.ofFloat(null, View.ALPHA, 0f, 1f);
+        repeating.setRepeatCount(1);
+        Assert.assertFalse(SharedClock.canPlay(repeating, views));
+    }
+
+    @Test
+    public void test_rejects_animators_with_listeners() {
+        View[] views = {newView()};
+        ObjectAnimator listened = ObjectAnimator.ofFloat(null, View.ALPHA, 0f, 1f);
+        listened.addListener(new AnimatorListenerAdapter() {
+        });
+
+        Assert.assertFalse(SharedClock.canPlay(listened, views));
+    }
+
+    @Test
+    public void test_clock_moves_every_child_by_its_own_play_time() {
+        View[] views = {newView(), newView()};
+        ObjectAnimator prototype = ObjectAnimator.ofFloat(null, View.TRANSLATION_X, 0f, 100f);
+        prototype.setDuration(100);
+        prototype.setInterpolator(new LinearInterpolator());
+        SharedClock sharedClock = new SharedClock(Collections.singletonList(prototype), views,
+                new long[]{0, 100});
+
+        sharedClock.getClock().setCurrentPlayTime(50);
+        Assert.assertEquals(50, views[0].getTranslationX(), 0.01f);
+        Assert.assertEquals(0, views[1].getTranslationX(), 0.01f);
+
+        sharedClock.getClock().setCurrentPlayTime(150);
+        Assert.assertEquals(100, views[0].getTranslationX(), 0.01f);
+        Assert.assertEquals(50, views[1].getTranslationX(), 0.01f);
+        Assert.assertNull(prototype.getTarget());
+    }
+
+    private static View newView() {
+        return new View(RuntimeEnvironment.application);
+    }
+
+}
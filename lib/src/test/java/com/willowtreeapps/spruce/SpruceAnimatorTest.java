@@ -0,0 +1,201 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce;
+
+import android.animation.Animator;
+import android.animation.ObjectAnimator;
+import android.os.Build;
+import android.view.View;
+
+import com.willowtreeapps.spruce.dynamics.FloatPropertyCompat;
+import com.willowtreeapps.spruce.dynamics.FloatValueHolder;
+import com.willowtreeapps.spruce.dynamics.SpringBatch;
+import com.willowtreeapps.spruce.dynamics.SpruceDynamics;
+import com.willowtreeapps.spruce.dynamics.SpruceSpringAnimation;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpruceAnimatorTest {
+
+    private final Map<View, Float> values = new HashMap<>();
+    private final FloatPropertyCompat<View> property = new FloatPropertyCompat<View>("test") {
+        @Override
+        public float getValue(View view) {
+            Float value = values.get(view);
+            return value != null ? value : 0;
+        }
+
+        @Override
+        public void setValue(View view, float value) {
+            values.put(view, value);
+        }
+    };
+
+    @Test
+    public void test_plan_starts_unset_values_from_the_property() {
+        View view = Mockito.mock(View.class);
+        values.put(view, 40f);
+        SpruceSpringAnimation spring = new SpruceSpringAnimation(view, property, 100);
+
+        SpruceAnimator animator = new SpruceAnimator();
+        setPlan(animator, Collections.<Animator>emptyList(), spring, view, false);
+
+        Assert.assertEquals(40, property.getValue(view), 0);
+        Assert.assertEquals(40, spring.getStartValue(), 0);
+    }
+
+    @Test
+    public void test_seek_moves_dynamics_to_their_play_time() {
+        View view = Mockito.mock(View.class);
+        SpruceSpringAnimation spring = springFrom(view, 0);
+        SpruceAnimator animator = new SpruceAnimator();
+        setPlan(animator, Collections.<Animator>emptyList(), spring, view, false);
+        long duration = animator.getTotalDuration();
+
+        animator.setCurrentPlayTime(duration / 2);
+        Assert.assertEquals(spring.getValueAt(0, 0, duration / 2), property.getValue(view), 0);
+        Assert.assertEquals(duration / 2, animator.getCurrentPlayTime());
+
+        animator.setCurrentFraction(1);
+        Assert.assertEquals(100, property.getValue(view), 0);
+
+        animator.setCurrentPlayTime(0);
+        Assert.assertEquals(0, property.getValue(view), 0);
+    }
+
+    @Test
+    public void test_seek_before_play_keeps_a_one_shot_plan_playable() {
+        View view = Mockito.mock(View.class);
+        SpruceAnimator animator = new SpruceAnimator();
+        setPlan(animator, Collections.<Animator>emptyList(), springFrom(view, 0), view, true);
+
+        animator.setCurrentPlayTime(animator.getTotalDuration() / 2);
+        animator.play();
+        Assert.assertEquals(0, property.getValue(view), 0);
+
+        try {
+            animator.play();
+            Assert.fail("A one shot plan can only be played once");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void test_reverse_from_the_start_ends_at_once() {
+        View view = Mockito.mock(View.class);
+        SpruceAnimator animator = new SpruceAnimator();
+        setPlan(animator, Collections.<Animator>emptyList(), springFrom(view, 0), view, false);
+        final List<Boolean> ends = new ArrayList<>();
+        animator.addEndListener(new SpruceAnimator.OnSequenceEndListener() {
+            @Override
+            public void onSequenceEnd(SpruceAnimator animator, boolean canceled) {
+                ends.add(canceled);
+            }
+        });
+
+        animator.reverse();
+
+        Assert.assertEquals(Collections.singletonList(false), ends);
+    }
+
+    @Test
+    public void test_reverse_starts_where_the_sequence_is_and_can_repeat() {
+        View view = Mockito.mock(View.class);
+        SpruceSpringAnimation spring = springFrom(view, 0);
+        SpruceAnimator animator = new SpruceAnimator();
+        setPlan(animator, Collections.<Animator>emptyList(), spring, view, false);
+        final List<Boolean> ends = new ArrayList<>();
+        animator.addEndListener(new SpruceAnimator.OnSequenceEndListener() {
+            @Override
+            public void onSequenceEnd(SpruceAnimator animator, boolean canceled) {
+                ends.add(canceled);
+            }
+        });
+        long playTime = animator.getTotalDuration() / 2;
+        animator.setCurrentPlayTime(playTime);
+
+        animator.reverse();
+        Assert.assertEquals(spring.getValueAt(0, 0, playTime), property.getValue(view), 0);
+        animator.cancel();
+        Assert.assertEquals(Collections.singletonList(true), ends);
+
+        animator.reverse();
+        animator.cancel();
+        Assert.assertEquals(2, ends.size());
+    }
+
+    @Test
+    @Config(sdk = Build.VERSION_CODES.N_MR1)
+    public void test_play_waits_for_start_delays_below_o() {
+        assertPlayWaitsForStartDelay();
+    }
+
+    @Test
+    public void test_play_waits_for_start_delays() {
+        assertPlayWaitsForStartDelay();
+    }
+
+    private static void assertPlayWaitsForStartDelay() {
+        FloatValueHolder holder = new FloatValueHolder(0);
+        ObjectAnimator copy = ObjectAnimator.ofFloat(holder, "value", 10, 20);
+        copy.setDuration(100);
+        copy.setStartDelay(200);
+        SpruceAnimator animator = new SpruceAnimator();
+        animator.getAnimatorSet().playTogether(copy);
+        animator.setPlan(Collections.<Animator>singletonList(copy),
+                Collections.<SpruceDynamics<?>>emptyList(), Collections.<View>emptyList(),
+                Collections.<SpringBatch>emptyList(), false);
+        Assert.assertEquals(10, holder.getValue(), 0);
+
+        animator.play();
+
+        Assert.assertTrue(copy.isStarted());
+        Assert.assertFalse(copy.isRunning());
+    }
+
+    private SpruceSpringAnimation springFrom(View view, float startValue) {
+        SpruceSpringAnimation spring = new SpruceSpringAnimation(view, property, 100)
+                .setStartValue(startValue);
+        spring.setMinimumVisibleChange(1);
+        return spring;
+    }
+
+    private static void setPlan(SpruceAnimator animator, List<Animator> animators,
+                                SpruceDynamics<?> dynamic, View target, boolean oneShot) {
+        animator.setPlan(animators, Collections.<SpruceDynamics<?>>singletonList(dynamic),
+                Collections.singletonList(target), Collections.<SpringBatch>emptyList(), oneShot);
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce;
+
+import android.animation.Animator;
+import android.animation.ObjectAnimator;
+import android.view.View;
+
+import com.willowtreeapps.spruce.dynamics.FloatValueHolder;
+import com.willowtreeapps.spruce.dynamics.SpringBatch;
+import com.willowtreeapps.spruce.dynamics.SpruceDynamics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpruceFutureTest {
+
+    @Test
+    public void test_empty_sequence_ends_right_away() {
+        SpruceAnimator animator = new SpruceAnimator();
+        final int[] ends = new int[1];
+        animator.addEndListener(new SpruceAnimator.OnSequenceEndListener() {
+            @Override
+            public void onSequenceEnd(SpruceAnimator animator, boolean canceled) {
+                Assert.assertFalse(canceled);
+                ends[0]++;
+            }
+        });
+        SpruceFuture future = animator.getFuture();
+
+        animator.play();
+
+        Assert.assertEquals(1, ends[0]);
+        Assert.assertTrue(future.isDone());
+        Assert.assertNotSame(future, animator.getFuture());
+    }
+
+    @Test
+    public void test_future_reports_whether_the_run_finished() throws Exception {
+        SpruceFuture finished = new SpruceFuture(new SpruceAnimator());
+        finished.complete(false);
+        Assert.assertTrue(finished.get());
+
+        SpruceFuture canceled = new SpruceFuture(new SpruceAnimator());
+        canceled.complete(true);
+        Assert.assertFalse(canceled.get());
+        Assert.assertFalse(canceled.isCancelled());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void test_canceled_future_throws() throws Exception {
+        SpruceFuture future = new SpruceFuture(new SpruceAnimator());
+        Assert.assertTrue(future.cancel(true));
+        future.complete(true);
+
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertFalse(future.cancel(true));
+        future.get();
+    }
+
+    @Test
+    public void test_cancel_off_the_main_thread_stops_the_run_on_it() throws Exception {
+        ObjectAnimator copy = ObjectAnimator.ofFloat(new FloatValueHolder(0), "value", 0, 1);
+        copy.setDuration(1000);
+        SpruceAnimator animator = new SpruceAnimator();
+        animator.getAnimatorSet().playTogether(copy);
+        animator.setPlan(Collections.<Animator>singletonList(copy),
+                Collections.<SpruceDynamics<?>>emptyList(), Collections.<View>emptyList(),
+                Collections.<SpringBatch>emptyList(), false);
+        final List<Boolean> ends = new ArrayList<>();
+        animator.addEndListener(new SpruceAnimator.OnSequenceEndListener() {
+            @Override
+            public void onSequenceEnd(SpruceAnimator animator, boolean canceled) {
+                ends.add(canceled);
+            }
+        });
+        final SpruceFuture future = animator.getFuture();
+        animator.play();
+
+        final boolean[] canceled = new boolean[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                canceled[0] = future.cancel(false);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        Assert.assertTrue(canceled[0]);
+        Assert.assertTrue(future.isDone());
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertTrue(ends.isEmpty());
+
+        ShadowLooper.idleMainLooper();
+
+        Assert.assertEquals(Collections.singletonList(true), ends);
+        Assert.assertFalse(future.cancel(false));
+    }
+}
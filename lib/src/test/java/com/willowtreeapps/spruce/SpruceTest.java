@@ -0,0 +1,205 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce;
+
+import android.animation.Animator;
+import android.animation.ObjectAnimator;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import com.willowtreeapps.spruce.dynamics.DynamicsPool;
+import com.willowtreeapps.spruce.dynamics.FloatValueHolder;
+import com.willowtreeapps.spruce.dynamics.SpruceDynamics;
+import com.willowtreeapps.spruce.dynamics.SpruceFlingAnimation;
+import com.willowtreeapps.spruce.dynamics.SpruceSpringAnimation;
+import com.willowtreeapps.spruce.sort.DefaultSort;
+import com.willowtreeapps.spruce.sort.SpruceTimedView;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpruceTest {
+
+    @Test
+    public void test_start_delays_follow_time_offsets() {
+        long[] startDelays = Spruce.getStartDelays(timedViews(0, 50, 100), new LinearInterpolator());
+        Assert.assertArrayEquals(new long[]{0, 50, 100}, startDelays);
+    }
+
+    @Test
+    public void test_start_delays_span_the_largest_offset() {
+        long[] startDelays = Spruce.getStartDelays(timedViews(100, 50, 0), new LinearInterpolator());
+        Assert.assertArrayEquals(new long[]{100, 50, 0}, startDelays);
+    }
+
+    @Test
+    public void test_start_delays_without_a_span() {
+        Assert.assertArrayEquals(new long[]{0}, Spruce.getStartDelays(timedViews(0), new LinearInterpolator()));
+        Assert.assertArrayEquals(new long[]{0, 0, 0}, Spruce.getStartDelays(timedViews(0, 0, 0), new LinearInterpolator()));
+        Assert.assertArrayEquals(new long[0], Spruce.getStartDelays(timedViews(), new LinearInterpolator()));
+    }
+
+    @Test
+    public void test_visible_children_only_moves_hidden_children_to_rest() {
+        FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+        View visibleChild = new View(RuntimeEnvironment.application);
+        View hiddenChild = new View(RuntimeEnvironment.application);
+        parent.addView(visibleChild);
+        parent.addView(hiddenChild);
+        parent.layout(0, 0, 100, 100);
+        visibleChild.layout(0, 0, 10, 10);
+        hiddenChild.layout(0, 200, 10, 210);
+        SpruceSpringAnimation spring = new SpruceSpringAnimation(visibleChild,
+                SpruceDynamics.TRANSLATION_X, 100).setStartValue(0);
+        SpruceFlingAnimation fling = new SpruceFlingAnimation(visibleChild,
+                SpruceDynamics.TRANSLATION_Y).setStartVelocity(1000);
+
+        new Spruce.SpruceBuilder(parent)
+                .sortWith(new DefaultSort(/*interObjectDelay=*/0))
+                .animateWith(spring, fling)
+                .animateVisibleChildrenOnly(true)
+                .prepare();
+
+        Assert.assertEquals(0, visibleChild.getTranslationX(), 0);
+        Assert.assertEquals(0, visibleChild.getTranslationY(), 0);
+        Assert.assertEquals(100, hiddenChild.getTranslationX(), 0);
+        float flingEnd = fling.getValueAt(0, 1000, fling.getDuration(0, 1000));
+        Assert.assertTrue(flingEnd > 0);
+        Assert.assertEquals(flingEnd, hiddenChild.getTranslationY(), 0);
+    }
+
+    @Test
+    public void test_runs_without_recycling_leave_the_pool_alone() {
+        DynamicsPool pool = DynamicsPool.getInstance();
+        pool.clear();
+        pool.release(new SpruceFlingAnimation(new FloatValueHolder(0)));
+        FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+        View child = new View(RuntimeEnvironment.application);
+        parent.addView(child);
+
+        new Spruce.SpruceBuilder(parent)
+                .sortWith(new DefaultSort(/*interObjectDelay=*/0))
+                .animateWith(new SpruceFlingAnimation(child, SpruceDynamics.TRANSLATION_Y)
+                        .setStartVelocity(1000))
+                .prepare();
+
+        Assert.assertEquals(1, pool.size(SpruceFlingAnimation.class));
+        pool.clear();
+    }
+
+    @Test
+    public void test_prepare_does_not_start_anything() {
+        FrameLayout parent = parentWithChildren(3);
+        final boolean[] ended = new boolean[1];
+
+        SpruceAnimator animator = staggeredBuilder(parent).prepare();
+        animator.addEndListener(new SpruceAnimator.OnSequenceEndListener() {
+            @Override
+            public void onSequenceEnd(SpruceAnimator animator, boolean canceled) {
+                ended[0] = true;
+            }
+        });
+
+        Assert.assertFalse(animator.getAnimatorSet().isStarted());
+        for (Animator childAnimator : animator.getAnimatorSet().getChildAnimations()) {
+            Assert.assertFalse(childAnimator.isStarted());
+        }
+        Assert.assertEquals(0, animator.getCurrentPlayTime());
+        Assert.assertFalse(ended[0]);
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            Assert.assertEquals(20, parent.getChildAt(i).getTranslationX(), 0);
+            Assert.assertEquals(0, parent.getChildAt(i).getTranslationY(), 0);
+        }
+    }
+
+    @Test
+    public void test_playing_a_prepared_animation_matches_start() {
+        FrameLayout preparedParent = parentWithChildren(3);
+        FrameLayout startedParent = parentWithChildren(3);
+
+        SpruceAnimator prepared = staggeredBuilder(preparedParent).prepare();
+        prepared.play();
+        SpruceAnimator started = staggeredBuilder(startedParent).start();
+
+        Assert.assertTrue(prepared.getAnimatorSet().isStarted());
+        Assert.assertEquals(started.getAnimatorSet().isStarted(),
+                prepared.getAnimatorSet().isStarted());
+        Assert.assertEquals(started.getTotalDuration(), prepared.getTotalDuration());
+        List<Animator> preparedChildren = prepared.getAnimatorSet().getChildAnimations();
+        List<Animator> startedChildren = started.getAnimatorSet().getChildAnimations();
+        Assert.assertEquals(startedChildren.size(), preparedChildren.size());
+        for (int i = 0; i < preparedChildren.size(); i++) {
+            ObjectAnimator preparedChild = (ObjectAnimator) preparedChildren.get(i);
+            ObjectAnimator startedChild = (ObjectAnimator) startedChildren.get(i);
+            Assert.assertEquals(startedChild.getStartDelay(), preparedChild.getStartDelay());
+            Assert.assertEquals(startedParent.indexOfChild((View) startedChild.getTarget()),
+                    preparedParent.indexOfChild((View) preparedChild.getTarget()));
+        }
+
+        for (long playTime : new long[]{0, 75, 150, prepared.getTotalDuration()}) {
+            prepared.setCurrentPlayTime(playTime);
+            started.setCurrentPlayTime(playTime);
+            for (int i = 0; i < preparedParent.getChildCount(); i++) {
+                Assert.assertEquals(startedParent.getChildAt(i).getTranslationX(),
+                        preparedParent.getChildAt(i).getTranslationX(), 0);
+                Assert.assertEquals(startedParent.getChildAt(i).getTranslationY(),
+                        preparedParent.getChildAt(i).getTranslationY(), 0);
+            }
+        }
+    }
+
+    private static FrameLayout parentWithChildren(int count) {
+        FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+        for (int i = 0; i < count; i++) {
+            parent.addView(new View(RuntimeEnvironment.application));
+        }
+        return parent;
+    }
+
+    private static Spruce.SpruceBuilder staggeredBuilder(FrameLayout parent) {
+        ObjectAnimator slide = ObjectAnimator.ofFloat(null, View.TRANSLATION_X, 20f, 100f)
+                .setDuration(100);
+        SpruceSpringAnimation spring = new SpruceSpringAnimation(parent,
+                SpruceDynamics.TRANSLATION_Y, 100).setStartValue(0);
+        return new Spruce.SpruceBuilder(parent)
+                .sortWith(new DefaultSort(/*interObjectDelay=*/50))
+                .animateWith(slide, spring);
+    }
+
+    private static List<SpruceTimedView> timedViews(long... timeOffsets) {
+        List<SpruceTimedView> timedViews = new ArrayList<>();
+        for (long timeOffset : timeOffsets) {
+            timedViews.add(new SpruceTimedView(Mockito.mock(View.class), timeOffset));
+        }
+        return timedViews;
+    }
+
+}
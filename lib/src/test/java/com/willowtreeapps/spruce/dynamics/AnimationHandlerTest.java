@@ -0,0 +1,260 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import android.os.SystemClock;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class AnimationHandlerTest {
+
+    private final List<Runnable> frames = new ArrayList<>();
+    private final List<String> calls = new ArrayList<>();
+    private AnimationHandler handler;
+
+    @Before
+    public void setup() {
+        handler = new AnimationHandler(new AnimationHandler.FrameCallbackScheduler() {
+            @Override
+            public void postFrameCallback(Runnable frameCallback) {
+                frames.add(frameCallback);
+            }
+
+            @Override
+            public boolean isCurrentThread() {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void test_delayed_callbacks_start_once_due() {
+        handler.addAnimationFrameCallback(new Callback("a"), 50);
+        handler.addAnimationFrameCallback(new Callback("b"), 20);
+        handler.addAnimationFrameCallback(new Callback("c"), 0);
+
+        frame();
+        Assert.assertEquals(Arrays.asList("c"), calls);
+
+        calls.clear();
+        SystemClock.sleep(30);
+        frame();
+        Assert.assertEquals(Arrays.asList("c", "b"), calls);
+
+        calls.clear();
+        SystemClock.sleep(30);
+        frame();
+        Assert.assertEquals(Arrays.asList("c", "b", "a"), calls);
+    }
+
+    @Test
+    public void test_removed_callbacks_are_not_called() {
+        Callback waiting = new Callback("waiting");
+        Callback active = new Callback("active");
+        handler.addAnimationFrameCallback(waiting, 20);
+        handler.addAnimationFrameCallback(active, 0);
+        handler.addAnimationFrameCallback(new Callback("other"), 0);
+
+        handler.removeCallback(waiting);
+        handler.removeCallback(active);
+        SystemClock.sleep(30);
+        frame();
+
+        Assert.assertEquals(Arrays.asList("other"), calls);
+    }
+
+    @Test
+    public void test_adding_again_replaces_the_delay() {
+        Callback callback = new Callback("a");
+        handler.addAnimationFrameCallback(callback, 20);
+        handler.addAnimationFrameCallback(callback, 100);
+
+        SystemClock.sleep(30);
+        frame();
+        Assert.assertTrue(calls.isEmpty());
+
+        handler.addAnimationFrameCallback(callback, 0);
+        handler.addAnimationFrameCallback(callback, 0);
+        frame();
+        Assert.assertEquals(Arrays.asList("a"), calls);
+    }
+
+    @Test
+    public void test_callbacks_can_end_and_start_during_a_frame() {
+        final Callback second = new Callback("second");
+        final Callback added = new Callback("added");
+        handler.addAnimationFrameCallback(new Callback("first") {
+            @Override
+            public boolean doAnimationFrame(long frameTime) {
+                super.doAnimationFrame(frameTime);
+                handler.removeCallback(this);
+                handler.removeCallback(second);
+                handler.addAnimationFrameCallback(added, 0);
+                return true;
+            }
+        }, 0);
+        handler.addAnimationFrameCallback(second, 0);
+        handler.addAnimationFrameCallback(new Callback("third"), 0);
+
+        frame();
+        Assert.assertEquals(Arrays.asList("first", "third"), calls);
+
+        calls.clear();
+        frame();
+        Assert.assertEquals(Arrays.asList("third", "added"), calls);
+    }
+
+    @Test
+    public void test_one_frame_is_posted_at_a_time() {
+        Callback callback = new Callback("a");
+        handler.addAnimationFrameCallback(callback, 0);
+        handler.addAnimationFrameCallback(new Callback("b"), 10);
+        Assert.assertEquals(1, frames.size());
+
+        frame();
+        Assert.assertEquals(1, frames.size());
+
+        handler.removeCallback(callback);
+        SystemClock.sleep(20);
+        frame();
+        Assert.assertEquals(1, frames.size());
+        Assert.assertEquals(Arrays.asList("a", "b"), calls);
+    }
+
+    @Test
+    public void test_removed_delayed_callbacks_are_dropped() {
+        handler.addAnimationFrameCallback(new Callback("waiting"), 10000);
+        Callback[] stagger = new Callback[100];
+        for (int i = 0; i < stagger.length; i++) {
+            stagger[i] = new Callback("stagger");
+        }
+
+        // Cancels and replays a stagger, the way a replayed sequence does.
+        for (int run = 0; run < 10; run++) {
+            for (int i = 0; i < stagger.length; i++) {
+                handler.addAnimationFrameCallback(stagger[i], 100 + i * 10);
+            }
+            for (Callback callback : stagger) {
+                handler.removeCallback(callback);
+            }
+            Assert.assertTrue(handler.getQueuedCallbackCount() <= 1 + 2 * stagger.length);
+        }
+
+        handler.addAnimationFrameCallback(stagger[0], 100);
+        handler.addAnimationFrameCallback(stagger[0], 200);
+        handler.removeCallback(stagger[0]);
+        SystemClock.sleep(300);
+        frame();
+        Assert.assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    public void test_callbacks_step_to_the_scheduler_frame_time() {
+        FrameTimeScheduler scheduler = new FrameTimeScheduler();
+        handler = new AnimationHandler(scheduler);
+        final List<Long> frameTimes = new ArrayList<>();
+        AnimationHandler.AnimationFrameCallback callback =
+                new AnimationHandler.AnimationFrameCallback() {
+                    @Override
+                    public boolean doAnimationFrame(long frameTime) {
+                        frameTimes.add(frameTime);
+                        return false;
+                    }
+                };
+        long now = SystemClock.uptimeMillis();
+        handler.addAnimationFrameCallback(callback, 0);
+        handler.addAnimationFrameCallback(new Callback("delayed"), 50);
+
+        scheduler.frame(now + 40);
+        scheduler.frame(now + 60);
+
+        Assert.assertEquals(Arrays.asList(now + 40, now + 60), frameTimes);
+        // The delay is judged by the frame time rather than the clock.
+        Assert.assertEquals(Arrays.asList("delayed"), calls);
+        Assert.assertEquals(now + 60, handler.getMCurrentFrameTime());
+    }
+
+    /**
+     * Runs the frame the handler asked for.
+     */
+    private void frame() {
+        Assert.assertEquals(1, frames.size());
+        frames.remove(0).run();
+    }
+
+    /**
+     * Runs frames at the time the test gives it, like Choreographer runs them at vsync time.
+     */
+    private static class FrameTimeScheduler implements AnimationHandler.FrameCallbackScheduler,
+            AnimationHandler.FrameTimeProvider {
+
+        private Runnable frameCallback;
+        private long frameTimeNanos;
+
+        @Override
+        public void postFrameCallback(Runnable frameCallback) {
+            this.frameCallback = frameCallback;
+        }
+
+        @Override
+        public boolean isCurrentThread() {
+            return true;
+        }
+
+        @Override
+        public long getFrameTimeNanos() {
+            return frameTimeNanos;
+        }
+
+        void frame(long frameTime) {
+            Runnable callback = frameCallback;
+            frameCallback = null;
+            frameTimeNanos = frameTime * 1000000;
+            callback.run();
+        }
+    }
+
+    private class Callback implements AnimationHandler.AnimationFrameCallback {
+
+        private final String name;
+
+        Callback(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean doAnimationFrame(long frameTime) {
+            calls.add(name);
+            return false;
+        }
+    }
+}
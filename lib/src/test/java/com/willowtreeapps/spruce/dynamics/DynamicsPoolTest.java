@@ -0,0 +1,116 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class DynamicsPoolTest {
+
+    @Test
+    public void test_obtain_copies_without_pooled_animations() {
+        DynamicsPool pool = new DynamicsPool(4);
+        SpruceFlingAnimation prototype = fling(2);
+
+        SpruceDynamics<?> animation = pool.obtain(prototype, new FloatValueHolder(0));
+
+        Assert.assertNotSame(prototype, animation);
+        Assert.assertEquals(2, ((SpruceFlingAnimation) animation).getFriction(), 0);
+    }
+
+    @Test
+    public void test_released_animation_is_reused() {
+        DynamicsPool pool = new DynamicsPool(4);
+        SpruceDynamics<?> released = pool.obtain(fling(2), new FloatValueHolder(0));
+        released.addEndListener(new SpruceDynamics.OnAnimationEndListener() {
+            @Override
+            public void onAnimationEnd(SpruceDynamics animation, boolean canceled, float value,
+                                       float velocity) {
+            }
+        });
+        pool.release(released);
+        Assert.assertEquals(1, pool.size(SpruceFlingAnimation.class));
+
+        FloatValueHolder target = new FloatValueHolder(0);
+        SpruceDynamics<?> reused = pool.obtain(fling(3), target);
+
+        Assert.assertSame(released, reused);
+        Assert.assertSame(target, reused.mTarget);
+        Assert.assertEquals(3, ((SpruceFlingAnimation) reused).getFriction(), 0);
+        Assert.assertEquals(0, pool.size(SpruceFlingAnimation.class));
+    }
+
+    @Test
+    public void test_pool_is_bounded_per_class() {
+        DynamicsPool pool = new DynamicsPool(2);
+        for (int i = 0; i < 4; i++) {
+            pool.release(fling(1));
+        }
+        pool.release(new SpruceSpringAnimation(new FloatValueHolder(0), 0));
+
+        Assert.assertEquals(2, pool.size(SpruceFlingAnimation.class));
+        Assert.assertEquals(1, pool.size(SpruceSpringAnimation.class));
+    }
+
+    @Test
+    public void test_animation_is_released_once() {
+        DynamicsPool pool = new DynamicsPool(4);
+        SpruceFlingAnimation animation = fling(1);
+        pool.release(animation);
+        pool.release(animation);
+
+        Assert.assertEquals(1, pool.size(SpruceFlingAnimation.class));
+    }
+
+    @Test
+    public void test_obtained_animation_can_be_released_again() {
+        DynamicsPool pool = new DynamicsPool(4);
+        SpruceFlingAnimation animation = fling(1);
+        pool.release(animation);
+        SpruceDynamics<?> reused = pool.obtain(fling(2), new FloatValueHolder(0));
+        pool.release(reused);
+
+        Assert.assertSame(animation, reused);
+        Assert.assertEquals(1, pool.size(SpruceFlingAnimation.class));
+    }
+
+    @Test
+    public void test_cleared_animation_can_be_released_again() {
+        DynamicsPool pool = new DynamicsPool(4);
+        SpruceFlingAnimation animation = fling(1);
+        pool.release(animation);
+        pool.clear();
+        pool.release(animation);
+
+        Assert.assertEquals(1, pool.size(SpruceFlingAnimation.class));
+    }
+
+    private static SpruceFlingAnimation fling(float friction) {
+        return new SpruceFlingAnimation(new FloatValueHolder(0))
+                .setFriction(friction)
+                .setStartVelocity(1000);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpringBatchTest {
+
+    private static final FloatPropertyCompat<FloatValueHolder> VALUE =
+            new FloatPropertyCompat<FloatValueHolder>("value") {
+                @Override
+                public float getValue(FloatValueHolder object) {
+                    return object.getValue();
+                }
+
+                @Override
+                public void setValue(FloatValueHolder object, float value) {
+                    object.setValue(value);
+                }
+            };
+
+    private FloatValueHolder[] targets;
+    private long[] startDelays;
+    private SpruceSpringAnimation prototype;
+    private int ends;
+    private boolean endCanceled;
+
+    @Before
+    public void setup() {
+        targets = new FloatValueHolder[]{
+                new FloatValueHolder(0), new FloatValueHolder(20), new FloatValueHolder(40)};
+        startDelays = new long[]{0, 32, 64};
+        prototype = new SpruceSpringAnimation(new FloatValueHolder(0), VALUE, 100);
+        prototype.getSpring().setStiffness(SpringForce.STIFFNESS_LOW)
+                .setDampingRatio(SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY);
+        prototype.setMinimumVisibleChange(1);
+    }
+
+    @Test
+    public void test_batch_follows_spring_animations() {
+        SpringBatch batch = startBatch();
+        SpruceSpringAnimation[] springs = new SpruceSpringAnimation[targets.length];
+        boolean[] settled = new boolean[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            springs[i] = prototype.copy(new FloatValueHolder(0));
+            // Done when a spring animation starts.
+            springs[i].getSpring().setValueThreshold(springs[i].getValueThreshold());
+            springs[i].mValue = targets[i].getValue();
+            springs[i].mVelocity = 0;
+        }
+
+        for (long elapsed = 0; batch.isRunning(); elapsed += SpruceDynamics.FRAME_TIME) {
+            batch.doAnimationFrame(1000 + elapsed);
+            for (int i = 0; i < targets.length; i++) {
+                // Each spring steps from the frame after its first one.
+                if (elapsed > startDelays[i] && !settled[i]) {
+                    settled[i] = springs[i].updateValueAndVelocity(SpruceDynamics.FRAME_TIME);
+                }
+                Assert.assertEquals(springs[i].mValue, targets[i].getValue(), 0.01f);
+            }
+        }
+        for (int i = 0; i < targets.length; i++) {
+            Assert.assertTrue(settled[i]);
+        }
+    }
+
+    @Test
+    public void test_batch_ends_once_every_child_is_at_rest() {
+        SpringBatch batch = startBatch();
+
+        for (long elapsed = 0; batch.isRunning(); elapsed += SpruceDynamics.FRAME_TIME) {
+            batch.doAnimationFrame(1000 + elapsed);
+        }
+
+        Assert.assertEquals(1, ends);
+        Assert.assertFalse(endCanceled);
+        for (FloatValueHolder target : targets) {
+            Assert.assertEquals(100, target.getValue(), 0);
+        }
+    }
+
+    @Test
+    public void test_cancel_stops_where_the_children_are() {
+        SpringBatch batch = startBatch();
+        batch.doAnimationFrame(1000);
+        batch.doAnimationFrame(1016);
+        float value = targets[0].getValue();
+
+        batch.cancel();
+
+        Assert.assertFalse(batch.isRunning());
+        Assert.assertEquals(1, ends);
+        Assert.assertTrue(endCanceled);
+        Assert.assertEquals(value, targets[0].getValue(), 0);
+    }
+
+    @Test
+    public void test_seek_uses_the_start_delays() {
+        SpringBatch batch = new SpringBatch(prototype, targets, startDelays);
+        long duration = batch.getDuration();
+
+        batch.seek(startDelays[1]);
+        Assert.assertEquals(prototype.getValueAt(0, 0, startDelays[1]), targets[0].getValue(),
+                0.01f);
+        Assert.assertEquals(20, targets[1].getValue(), 0);
+        Assert.assertEquals(40, targets[2].getValue(), 0);
+
+        batch.seek(duration);
+        for (FloatValueHolder target : targets) {
+            Assert.assertEquals(100, target.getValue(), 0);
+        }
+
+        batch.seek(0);
+        Assert.assertEquals(0, targets[0].getValue(), 0);
+        Assert.assertEquals(20, targets[1].getValue(), 0);
+        Assert.assertEquals(40, targets[2].getValue(), 0);
+    }
+
+    private SpringBatch startBatch() {
+        SpringBatch batch = new SpringBatch(prototype, targets, startDelays);
+        batch.setAnimationHandler(new AnimationHandler(new AnimationHandler.FrameCallbackScheduler() {
+            @Override
+            public void postFrameCallback(Runnable frameCallback) {
+                // Frames are driven by the test.
+            }
+
+            @Override
+            public boolean isCurrentThread() {
+                return true;
+            }
+        }));
+        batch.setEndListener(new SpringBatch.OnBatchEndListener() {
+            @Override
+            public void onBatchEnd(SpringBatch batch, boolean canceled) {
+                ends++;
+                endCanceled = canceled;
+            }
+        });
+        batch.start();
+        return batch;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpringForceTest {
+
+    private static final long[] FRAME_TIMES = {16, 17, 17, 16, 8, 9, 33, 16, 0};
+
+    @Test
+    public void test_underdamped_spring_follows_the_spring_function() {
+        assertFollowsSpringFunction(SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY);
+    }
+
+    @Test
+    public void test_critically_damped_spring_follows_the_spring_function() {
+        assertFollowsSpringFunction(SpringForce.DAMPING_RATIO_NO_BOUNCY);
+    }
+
+    @Test
+    public void test_overdamped_spring_follows_the_spring_function() {
+        assertFollowsSpringFunction(2f);
+    }
+
+    @Test
+    public void test_copies_step_like_a_new_spring() {
+        SpringForce spring = new SpringForce(100).setStiffness(SpringForce.STIFFNESS_LOW);
+        SpringForce copy = new SpringForce(spring);
+        // Fills the cache of the shared values.
+        for (long frameTime : FRAME_TIMES) {
+            spring.updateValues(0, 0, frameTime);
+        }
+
+        for (long frameTime : FRAME_TIMES) {
+            SpruceDynamics.MassState state = copy.updateValues(20, 300, frameTime);
+            float value = state.mValue;
+            float velocity = state.mVelocity;
+            state = new SpringForce(100).setStiffness(SpringForce.STIFFNESS_LOW)
+                    .updateValues(20, 300, frameTime);
+            Assert.assertEquals(state.mValue, value, 0);
+            Assert.assertEquals(state.mVelocity, velocity, 0);
+        }
+    }
+
+    @Test
+    public void test_steps_add_up() {
+        SpringForce spring = new SpringForce(100).setStiffness(SpringForce.STIFFNESS_LOW);
+        SpruceDynamics.MassState state = spring.updateValues(0, 0, 16);
+        state = spring.updateValues(state.mValue, state.mVelocity, 17);
+        float value = state.mValue;
+        float velocity = state.mVelocity;
+
+        state = spring.updateValues(0, 0, 33);
+        Assert.assertEquals(state.mValue, value, 0.001f);
+        Assert.assertEquals(state.mVelocity, velocity, 0.01f);
+    }
+
+    @Test
+    public void test_mixed_frame_times_stay_cached() {
+        SpringForce spring = new SpringForce(100).setStiffness(SpringForce.STIFFNESS_LOW);
+        long[] frameTimes = {8, 9, 16, 17, 33};
+        for (long frameTime : frameTimes) {
+            spring.updateValues(0, 0, frameTime);
+        }
+        // Predictions over growing times don't go through the cache.
+        for (long time = 16; time < 2000; time += 16) {
+            spring.getValuesAt(0, 0, time);
+        }
+
+        SpringCoefficients coefficients = spring.getCoefficients();
+        for (long frameTime : frameTimes) {
+            Assert.assertTrue(coefficients.isCached(frameTime));
+        }
+        Assert.assertFalse(coefficients.isCached(1000));
+        Assert.assertEquals(spring.updateValues(0, 0, 1000).mValue,
+                spring.getValuesAt(0, 0, 1000).mValue, 0);
+    }
+
+    /**
+     * Compares every frame time, twice so the second pass is served from the cache, with the
+     * spring function worked out from scratch.
+     */
+    private static void assertFollowsSpringFunction(float dampingRatio) {
+        SpringForce spring = new SpringForce(100)
+                .setStiffness(SpringForce.STIFFNESS_MEDIUM)
+                .setDampingRatio(dampingRatio);
+        for (int pass = 0; pass < 2; pass++) {
+            for (long frameTime : FRAME_TIMES) {
+                double[] expected = springFunction(spring.getStiffness(), dampingRatio, -100, 500,
+                        frameTime);
+                SpruceDynamics.MassState state = spring.updateValues(0, 500, frameTime);
+                Assert.assertEquals(expected[0] + 100, state.mValue, 0.001f);
+                Assert.assertEquals(expected[1], state.mVelocity, 0.01f);
+            }
+        }
+    }
+
+    /**
+     * Displacement and velocity of a spring after the given time.
+     */
+    private static double[] springFunction(double stiffness, double dampingRatio,
+                                           double displacement, double velocity, long time) {
+        double naturalFreq = Math.sqrt(stiffness);
+        double t = time / 1000d;
+        if (dampingRatio > 1) {
+            double root = naturalFreq * Math.sqrt(dampingRatio * dampingRatio - 1);
+            double gammaPlus = -dampingRatio * naturalFreq + root;
+            double gammaMinus = -dampingRatio * naturalFreq - root;
+            double b = (gammaMinus * displacement - velocity) / (gammaMinus - gammaPlus);
+            double a = displacement - b;
+            return new double[]{
+                    a * Math.exp(gammaMinus * t) + b * Math.exp(gammaPlus * t),
+                    a * gammaMinus * Math.exp(gammaMinus * t)
+                            + b * gammaPlus * Math.exp(gammaPlus * t)};
+        } else if (dampingRatio == 1) {
+            double b = velocity + naturalFreq * displacement;
+            double decay = Math.exp(-naturalFreq * t);
+            return new double[]{
+                    (displacement + b * t) * decay,
+                    (displacement + b * t) * decay * -naturalFreq + b * decay};
+        } else {
+            double dampedFreq = naturalFreq * Math.sqrt(1 - dampingRatio * dampingRatio);
+            double sinCoeff = (dampingRatio * naturalFreq * displacement + velocity) / dampedFreq;
+            double decay = Math.exp(-dampingRatio * naturalFreq * t);
+            double value = decay * (displacement * Math.cos(dampedFreq * t)
+                    + sinCoeff * Math.sin(dampedFreq * t));
+            return new double[]{
+                    value,
+                    value * -naturalFreq * dampingRatio + decay
+                            * (-dampedFreq * displacement * Math.sin(dampedFreq * t)
+                            + dampedFreq * sinCoeff * Math.cos(dampedFreq * t))};
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.dynamics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpruceDynamicsTest {
+
+    @Test
+    public void test_spring_value_at_follows_the_frames() {
+        SpruceSpringAnimation spring = new SpruceSpringAnimation(new FloatValueHolder(0), 100);
+        spring.getSpring().setStiffness(SpringForce.STIFFNESS_LOW)
+                .setDampingRatio(SpringForce.DAMPING_RATIO_MEDIUM_BOUNCY);
+        spring.setMinimumVisibleChange(1);
+        long duration = spring.getDuration(0, 500);
+
+        assertFollowsFrames(spring, 0, 500, duration);
+        Assert.assertEquals(0, spring.getValueAt(0, 500, 0), 0);
+        Assert.assertEquals(100, spring.getValueAt(0, 500, duration), 0);
+    }
+
+    @Test
+    public void test_fling_value_at_follows_the_frames() {
+        SpruceFlingAnimation fling = new SpruceFlingAnimation(new FloatValueHolder(0))
+                .setFriction(1)
+                .setMinValue(-1000)
+                .setMaxValue(1000);
+        fling.setMinimumVisibleChange(1);
+        long duration = fling.getDuration(0, 1000);
+
+        assertFollowsFrames(fling, 0, 1000, duration);
+        Assert.assertEquals(fling.getValueAt(0, 1000, duration),
+                fling.getValueAt(0, 1000, duration + 1000), 0);
+    }
+
+    @Test
+    public void test_fling_duration_stops_at_max_value() {
+        SpruceFlingAnimation fling = new SpruceFlingAnimation(new FloatValueHolder(0))
+                .setMaxValue(100);
+        fling.setMinimumVisibleChange(1);
+        long duration = fling.getDuration(0, 2000);
+
+        Assert.assertTrue(duration < new SpruceFlingAnimation(new FloatValueHolder(0))
+                .setMinimumVisibleChange(1).getDuration(0, 2000));
+        Assert.assertEquals(100, fling.getValueAt(0, 2000, duration), 0.01f);
+    }
+
+    @Test
+    public void test_copy_keeps_the_configuration() {
+        FloatValueHolder target = new FloatValueHolder(0);
+        SpruceFlingAnimation fling = new SpruceFlingAnimation(new FloatValueHolder(0))
+                .setFriction(2)
+                .setStartValue(10)
+                .setStartVelocity(500)
+                .setMinValue(-50)
+                .setMaxValue(50);
+        fling.setStartDelay(30);
+        SpruceFlingAnimation copy = fling.copy(target);
+
+        Assert.assertNotSame(fling, copy);
+        Assert.assertEquals(2, copy.getFriction(), 0);
+        Assert.assertEquals(10, copy.mValue, 0);
+        Assert.assertEquals(500, copy.mVelocity, 0);
+        Assert.assertEquals(-50, copy.mMinValue, 0);
+        Assert.assertEquals(50, copy.mMaxValue, 0);
+        Assert.assertEquals(30, copy.getStartDelay());
+    }
+
+    @Test
+    public void test_spring_copies_have_their_own_spring() {
+        SpruceSpringAnimation spring = new SpruceSpringAnimation(new FloatValueHolder(0), 100);
+        spring.getSpring().setStiffness(SpringForce.STIFFNESS_LOW);
+        SpruceSpringAnimation copy = spring.copy(new FloatValueHolder(0));
+
+        Assert.assertNotSame(spring.getSpring(), copy.getSpring());
+        Assert.assertEquals(SpringForce.STIFFNESS_LOW, copy.getSpring().getStiffness(), 0.01f);
+        Assert.assertEquals(100, copy.getSpring().getFinalPosition(), 0);
+
+        copy.getSpring().setFinalPosition(50);
+        Assert.assertEquals(100, spring.getSpring().getFinalPosition(), 0);
+        Assert.assertEquals(spring.getValueAt(0, 0, 100), copy.getValueAt(-50, 0, 100) + 50, 0.01f);
+    }
+
+    @Test
+    public void test_started_copies_share_coefficients() {
+        SpruceSpringAnimation spring = new SpruceSpringAnimation(new FloatValueHolder(0), 100);
+        spring.getSpring().setStiffness(SpringForce.STIFFNESS_LOW);
+        SpruceSpringAnimation first = spring.copy(new FloatValueHolder(0));
+        SpruceSpringAnimation second = spring.copy(new FloatValueHolder(0));
+        first.setMinimumVisibleChange(SpruceDynamics.MIN_VISIBLE_CHANGE_PIXELS);
+        second.setMinimumVisibleChange(SpruceDynamics.MIN_VISIBLE_CHANGE_ALPHA);
+
+        AnimationHandler handler = new AnimationHandler(new AnimationHandler.FrameCallbackScheduler() {
+            @Override
+            public void postFrameCallback(Runnable frameCallback) {
+                // Frames aren't needed.
+            }
+
+            @Override
+            public boolean isCurrentThread() {
+                return true;
+            }
+        });
+        first.setAnimationHandler(handler);
+        second.setAnimationHandler(handler);
+        first.start();
+        second.start();
+
+        Assert.assertSame(spring.getSpring().getCoefficients(),
+                first.getSpring().getCoefficients());
+        Assert.assertSame(first.getSpring().getCoefficients(),
+                second.getSpring().getCoefficients());
+    }
+
+    @Test
+    public void test_copy_animates_a_custom_force() {
+        FloatValueHolder target = new FloatValueHolder(0);
+        SpruceDynamics<?> copy = new ConstantSpeedAnimation(new FloatValueHolder(0), 125)
+                .setStartValue(0)
+                .copy(target);
+
+        Assert.assertTrue(copy instanceof ConstantSpeedAnimation);
+        Assert.assertEquals(50, copy.getValueAt(0, 0, 400), 0.01f);
+        Assert.assertEquals(800, copy.getDuration(0, 0));
+    }
+
+    /**
+     * Compares the value at every frame with stepping the animation frame by frame.
+     */
+    private static void assertFollowsFrames(SpruceDynamics<?> animation, float startValue,
+                                            float startVelocity, long duration) {
+        animation.mValue = startValue;
+        animation.mVelocity = startVelocity;
+        for (long time = SpruceDynamics.FRAME_TIME; time < duration; time += SpruceDynamics.FRAME_TIME) {
+            float value = animation.getValueAt(startValue, startVelocity, time);
+            animation.updateValueAndVelocity(SpruceDynamics.FRAME_TIME);
+            Assert.assertEquals(animation.mValue, value, 0.01f);
+        }
+    }
+
+    /**
+     * Moves at a constant speed up to a value of 100.
+     */
+    private static class ConstantSpeedAnimation extends SpruceDynamics<ConstantSpeedAnimation> {
+
+        private final float speed;
+
+        ConstantSpeedAnimation(FloatValueHolder target, float speed) {
+            super(target);
+            this.speed = speed;
+        }
+
+        @Override
+        protected ConstantSpeedAnimation onCopy(Object target) {
+            return new ConstantSpeedAnimation((FloatValueHolder) target, speed);
+        }
+
+        @Override
+        protected boolean updateValueAndVelocity(long deltaT) {
+            mValue = Math.min(100, mValue + speed * deltaT / 1000f);
+            return mValue == 100;
+        }
+
+        @Override
+        protected float getAcceleration(float value, float velocity) {
+            return 0;
+        }
+
+        @Override
+        protected boolean isAtEquilibrium(float value, float velocity) {
+            return value == 100;
+        }
+
+        @Override
+        protected void setValueThreshold(float threshold) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.content.ComponentCallbacks2;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class CachedSortTest {
+
+    private ViewGroup mockParent;
+    private List<View> mockChildren;
+    private SortFunction sortFunction;
+
+    @Before
+    public void setup() {
+        mockParent = Mockito.mock(ViewGroup.class);
+        mockChildren = TestHelper.setupMockChildren();
+        sortFunction = Mockito.spy(new RadialSort(/*interObjectDelay=*/1, /*reversed=*/true,
+                RadialSort.Position.TOP_LEFT));
+    }
+
+    @Test
+    public void test_unchanged_layout_is_not_sorted_again() {
+        CachedSort cachedSort = new CachedSort(sortFunction);
+        List<SpruceTimedView> firstViews = cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        List<View> children = new ArrayList<>(mockChildren);
+        List<SpruceTimedView> secondViews = cachedSort.sortWithTimeOffsets(mockParent, children);
+
+        Mockito.verify(sortFunction, Mockito.times(1)).sortWithTimeOffsets(Mockito.eq(mockParent), Mockito.<View>anyList());
+        Assert.assertEquals(firstViews.size(), secondViews.size());
+        for (int i = 0; i < firstViews.size(); i++) {
+            Assert.assertSame(firstViews.get(i).getView(), secondViews.get(i).getView());
+            Assert.assertSame(firstViews.get(i).getView(), children.get(i));
+            Assert.assertEquals(firstViews.get(i).getTimeOffset(), secondViews.get(i).getTimeOffset());
+        }
+    }
+
+    @Test
+    public void test_moved_child_is_sorted_again() {
+        CachedSort cachedSort = new CachedSort(sortFunction);
+        cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        Mockito.when(mockChildren.get(0).getX()).thenReturn(10f);
+        cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        Mockito.verify(sortFunction, Mockito.times(2)).sortWithTimeOffsets(Mockito.eq(mockParent), Mockito.<View>anyList());
+    }
+
+    @Test
+    public void test_other_children_at_the_same_place_are_sorted_again() {
+        CachedSort cachedSort = new CachedSort(sortFunction);
+        cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        List<View> otherChildren = TestHelper.setupMockChildren();
+        List<View> children = new ArrayList<>(otherChildren);
+        List<SpruceTimedView> timedViews = cachedSort.sortWithTimeOffsets(mockParent, children);
+
+        Mockito.verify(sortFunction, Mockito.times(2)).sortWithTimeOffsets(Mockito.eq(mockParent), Mockito.<View>anyList());
+        for (int i = 0; i < timedViews.size(); i++) {
+            Assert.assertTrue(otherChildren.contains(timedViews.get(i).getView()));
+            Assert.assertSame(timedViews.get(i).getView(), children.get(i));
+        }
+    }
+
+    @Test
+    public void test_position_strategy_change_on_the_wrapped_sort_is_sorted_again() {
+        CachedSort cachedSort = new CachedSort(sortFunction);
+        cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        sortFunction.setPositionStrategy(PositionStrategy.CENTER);
+        cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        Mockito.verify(sortFunction, Mockito.times(2)).sortWithTimeOffsets(Mockito.eq(mockParent), Mockito.<View>anyList());
+    }
+
+    @Test
+    public void test_trim_memory_drops_results() {
+        CachedSort cachedSort = new CachedSort(sortFunction);
+        cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        cachedSort.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        cachedSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        Mockito.verify(sortFunction, Mockito.times(2)).sortWithTimeOffsets(Mockito.eq(mockParent), Mockito.<View>anyList());
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+
+package com.willowtreeapps.spruce.sort;
+
+import android.view.View;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class ChildPositionsTest {
+
+    private List<View> mockChildren;
+
+    @Before
+    public void setup() {
+        mockChildren = TestHelper.setupMockChildren();
+    }
+
+    @Test
+    public void test_positions_are_read_once_per_child() {
+        new ChildPositions(mockChildren);
+        for (View child : mockChildren) {
+            Mockito.verify(child, Mockito.times(1)).getX();
+            Mockito.verify(child, Mockito.times(1)).getY();
+        }
+    }
+
+    @Test
+    public void test_sort_by_key_ascending() {
+        List<View> children = new ArrayList<>(mockChildren);
+        ChildPositions positions = new ChildPositions(children);
+        positions.sortByKey(children, new double[]{/*first=*/2, /*second=*/0, /*third=*/1}, false);
+        Assert.assertSame(mockChildren.get(1), children.get(0));
+        Assert.assertSame(mockChildren.get(2), children.get(1));
+        Assert.assertSame(mockChildren.get(0), children.get(2));
+    }
+
+    @Test
+    public void test_sort_by_key_descending() {
+        List<View> children = new ArrayList<>(mockChildren);
+        ChildPositions positions = new ChildPositions(children);
+        positions.sortByKey(children, new double[]{/*first=*/2, /*second=*/0, /*third=*/1}, true);
+        Assert.assertSame(mockChildren.get(0), children.get(0));
+        Assert.assertSame(mockChildren.get(2), children.get(1));
+        Assert.assertSame(mockChildren.get(1), children.get(2));
+    }
+
+    @Test
+    public void test_sort_keeps_order_of_equal_keys() {
+        List<View> children = new ArrayList<>(mockChildren);
+        ChildPositions positions = new ChildPositions(children);
+        positions.sortByKey(children, new double[]{/*first=*/1, /*second=*/0, /*third=*/1}, true);
+        Assert.assertSame(mockChildren.get(0), children.get(0));
+        Assert.assertSame(mockChildren.get(2), children.get(1));
+        Assert.assertSame(mockChildren.get(1), children.get(2));
+    }
+
+    @Test
+    public void test_grid_keys_are_bucketed() {
+        ChildPositions positions = new ChildPositions(setupGridChildren());
+        ChildPositions.Buckets rows = positions.buckets(positions.y);
+        Assert.assertNotNull(rows);
+        Assert.assertEquals(4, rows.count);
+        Assert.assertNull(new ChildPositions(mockChildren).buckets(new float[]{0, 1, 2}));
+    }
+
+    @Test
+    public void test_bucketed_order_matches_comparison_order() {
+        final ChildPositions positions = new ChildPositions(setupGridChildren());
+        int[] expected = positions.order(new ChildPositions.IndexComparator() {
+            @Override
+            public int compare(int left, int right) {
+                int result = Float.compare(positions.y[right], positions.y[left]);
+                if (result != 0) {
+                    return result;
+                }
+                return Float.compare(positions.x[left], positions.x[right]);
+            }
+        });
+        float[] rows = new float[positions.size];
+        for (int i = 0; i < positions.size; i++) {
+            rows[i] = -positions.y[i];
+        }
+        Assert.assertArrayEquals(expected, positions.orderByKeys(rows, positions.x));
+    }
+
+    private static List<View> setupGridChildren() {
+        List<View> children = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            View mockView = Mockito.mock(View.class);
+            // Visit the cells of a 6 x 4 grid out of order.
+            int cell = (i * 7) % 24;
+            Mockito.when(mockView.getX()).thenReturn(100f * (cell % 6));
+            Mockito.when(mockView.getY()).thenReturn(80f * (cell / 6));
+            children.add(mockView);
+        }
+        return children;
+    }
+
+}
@@ -34,6 +34,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @RunWith(RobolectricTestRunner.class)
@@ -76,6 +78,64 @@ public class ContinuousWeightedSortTest {
         Assert.assertEquals(0, resultViews.get(2).getTimeOffset());
     }
 
+    @Test
+    public void test_reused_sort_does_not_keep_previous_extents() {
+        ContinuousWeightedSort continuousWeightedSort = new ContinuousWeightedSort(/*interObjectDelay=*/1,
+                /*reversed=*/false,
+                RadialSort.Position.TOP_LEFT,
+                ContinuousWeightedSort.MEDIUM_WEIGHT,
+                ContinuousWeightedSort.MEDIUM_WEIGHT);
+        List<View> widerChildren = TestHelper.setupMockChildren();
+        for (View child : widerChildren) {
+            Mockito.when(child.getX()).thenReturn(child.getX() * 10);
+            Mockito.when(child.getY()).thenReturn(child.getY() * 10);
+        }
+        continuousWeightedSort.getViewListWithTimeOffsets(mockParent, widerChildren);
+
+        List<SpruceTimedView> resultViews = continuousWeightedSort
+                .getViewListWithTimeOffsets(mockParent, mockChildren);
+        Assert.assertEquals(0, resultViews.get(0).getTimeOffset());
+        Assert.assertEquals(1, resultViews.get(1).getTimeOffset());
+        Assert.assertEquals(2, resultViews.get(2).getTimeOffset());
+    }
+
+    @Test
+    public void test_sort_with_time_offsets_orders_by_distance() {
+        List<View> children = new ArrayList<>(mockChildren);
+        Collections.reverse(children);
+
+        List<SpruceTimedView> resultViews = new ContinuousWeightedSort(/*interObjectDelay=*/1,
+                /*reversed=*/false,
+                RadialSort.Position.TOP_LEFT,
+                ContinuousWeightedSort.MEDIUM_WEIGHT,
+                ContinuousWeightedSort.MEDIUM_WEIGHT)
+                .sortWithTimeOffsets(mockParent, children);
+
+        Assert.assertEquals(mockChildren, children);
+        for (int i = 0; i < resultViews.size(); i++) {
+            Assert.assertEquals(mockChildren.get(i), resultViews.get(i).getView());
+            Assert.assertEquals(i, resultViews.get(i).getTimeOffset());
+        }
+    }
+
+    @Test
+    public void test_sort_children_orders_like_sort_with_time_offsets() {
+        ContinuousWeightedSort sort = new ContinuousWeightedSort(/*interObjectDelay=*/1,
+                /*reversed=*/true,
+                RadialSort.Position.TOP_LEFT,
+                ContinuousWeightedSort.LIGHT_WEIGHT,
+                ContinuousWeightedSort.HEAVY_WEIGHT);
+        List<View> sortedChildren = new ArrayList<>(mockChildren);
+        Collections.reverse(sortedChildren);
+        List<View> timedChildren = new ArrayList<>(sortedChildren);
+
+        sort.sortChildren(mockParent, sortedChildren);
+        sort.sortWithTimeOffsets(mockParent, timedChildren);
+
+        Assert.assertEquals(mockChildren, sortedChildren);
+        Assert.assertEquals(sortedChildren, timedChildren);
+    }
+
     @Test
     public void test_inter_object_delay_of_zero() {
         List<SpruceTimedView> resultViews = new ContinuousWeightedSort(/*interObjectDelay=*/0,
@@ -139,40 +199,4 @@ public class ContinuousWeightedSortTest {
                 verticalWeight-1);
     }
 
-    @Test
-    public void test_calculate_max_distance() {
-        ContinuousWeightedSort continuousWeightedSort = new ContinuousWeightedSort(/*interObjectDelay=*/0,
-                /*reversed=*/false,
-                RadialSort.Position.TOP_LEFT,
-                ContinuousWeightedSort.MEDIUM_WEIGHT,
-                ContinuousWeightedSort.MEDIUM_WEIGHT);
-        double max = 0;
-        max = continuousWeightedSort.calculateMaxDistance(/*left=*/5, /*right*/4, max);
-        Assert.assertEquals(5, max, 0);
-    }
-
-    @Test
-    public void test_calculate_max_distance_with_greater_right_value() {
-        ContinuousWeightedSort continuousWeightedSort = new ContinuousWeightedSort(/*interObjectDelay=*/0,
-                /*reversed=*/false,
-                RadialSort.Position.TOP_LEFT,
-                ContinuousWeightedSort.MEDIUM_WEIGHT,
-                ContinuousWeightedSort.MEDIUM_WEIGHT);
-        double max = 0;
-        max = continuousWeightedSort.calculateMaxDistance(/*left=*/5, /*right*/6, max);
-        Assert.assertEquals(6, max, 0);
-    }
-
-    @Test
-    public void test_calculate_max_distance_with_equal_left_and_right_values() {
-        ContinuousWeightedSort continuousWeightedSort = new ContinuousWeightedSort(/*interObjectDelay=*/0,
-                /*reversed=*/false,
-                RadialSort.Position.TOP_LEFT,
-                ContinuousWeightedSort.MEDIUM_WEIGHT,
-                ContinuousWeightedSort.MEDIUM_WEIGHT);
-        double max = 0;
-        max = continuousWeightedSort.calculateMaxDistance(/*left=*/1, /*right*/1, max);
-        Assert.assertEquals(0, max, 0);
-    }
-
 }
@@ -135,6 +135,30 @@ public class CorneredSortTest {
                 null);
     }
 
+    @Test
+    public void test_sort_orders_children_less_than_a_pixel_apart() {
+        View fartherChild = Mockito.mock(View.class);
+        Mockito.when(fartherChild.getX()).thenReturn(0.4f);
+        View closerChild = Mockito.mock(View.class);
+        Mockito.when(closerChild.getX()).thenReturn(0.2f);
+        List<View> children = new ArrayList<>();
+        children.add(fartherChild);
+        children.add(closerChild);
+        corneredSort = new CorneredSort(/*interObjectDelay=*/0,
+                /*reversed=*/false,
+                CorneredSort.Corner.TOP_LEFT);
+
+        corneredSort.sortChildren(mockParent, children);
+        assertEquals(closerChild, children.get(0));
+        assertEquals(fartherChild, children.get(1));
+
+        children.add(children.remove(0));
+        List<SpruceTimedView> resultViews = corneredSort.sortWithTimeOffsets(mockParent, children);
+        assertEquals(closerChild, resultViews.get(0).getView());
+        assertEquals(fartherChild, resultViews.get(1).getView());
+        assertEquals(closerChild, children.get(0));
+    }
+
     @Test
     public void test_positive_inter_object_delay() {
         List<SpruceTimedView> resultViews = new CorneredSort(/*interObjectDelay=*/1,
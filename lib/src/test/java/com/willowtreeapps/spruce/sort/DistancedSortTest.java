@@ -98,6 +98,68 @@ public class DistancedSortTest {
         Assert.assertThat(distancedSort.translate(new PointF(0, 0), mockChildren), CoreMatchers.instanceOf(PointF.class));
     }
 
+    @Test
+    public void test_translate_does_not_reorder_children() {
+        List<View> children = new ArrayList<>(mockChildren);
+        DistancedSort distancedSort = new DistancedSort(/*interObjectDelay=*/0, /*reversed=*/false);
+
+        PointF resultPoint = distancedSort.translate(new PointF(2, 2), children);
+
+        Assert.assertEquals(2f, resultPoint.x, 0);
+        Assert.assertEquals(2f, resultPoint.y, 0);
+        Assert.assertEquals(mockChildren, children);
+    }
+
+    @Test
+    public void test_translate_picks_up_layout_changes() {
+        DistancedSort distancedSort = new DistancedSort(/*interObjectDelay=*/0, /*reversed=*/false);
+        Assert.assertEquals(0f, distancedSort.translate(new PointF(0, 0), mockChildren).x, 0);
+
+        Mockito.when(mockChildren.get(0).getX()).thenReturn(10f);
+        Mockito.when(mockChildren.get(0).getY()).thenReturn(10f);
+
+        PointF resultPoint = distancedSort.translate(new PointF(0, 0), mockChildren);
+        Assert.assertEquals(1f, resultPoint.x, 0);
+        Assert.assertEquals(1f, resultPoint.y, 0);
+    }
+
+    @Test
+    public void test_translate_picks_up_position_strategy_changes() {
+        View child = Mockito.mock(View.class);
+        Mockito.when(child.getWidth()).thenReturn(10);
+        Mockito.when(child.getHeight()).thenReturn(20);
+        List<View> children = new ArrayList<>();
+        children.add(child);
+        DistancedSort distancedSort = new DistancedSort(/*interObjectDelay=*/0, /*reversed=*/false);
+        Assert.assertEquals(0f, distancedSort.translate(new PointF(0, 0), children).x, 0);
+
+        distancedSort.setPositionStrategy(PositionStrategy.CENTER);
+
+        PointF resultPoint = distancedSort.translate(new PointF(0, 0), children);
+        Assert.assertEquals(5f, resultPoint.x, 0);
+        Assert.assertEquals(10f, resultPoint.y, 0);
+    }
+
+    @Test
+    public void test_translate_without_children_returns_the_point() {
+        DistancedSort distancedSort = new DistancedSort(/*interObjectDelay=*/0, /*reversed=*/false);
+
+        PointF resultPoint = distancedSort.translate(new PointF(3, 4), new ArrayList<View>());
+
+        Assert.assertEquals(3f, resultPoint.x, 0);
+        Assert.assertEquals(4f, resultPoint.y, 0);
+    }
+
+    @Test
+    public void test_sort_without_children() {
+        DistancedSort distancedSort = new DistancedSort(/*interObjectDelay=*/1, /*reversed=*/false);
+
+        Assert.assertTrue(distancedSort.sortWithTimeOffsets(mockParent, new ArrayList<View>())
+                .isEmpty());
+        Assert.assertTrue(distancedSort.getViewListWithTimeOffsets(mockParent,
+                new ArrayList<View>()).isEmpty());
+    }
+
     @Test
     public void test_get_distance_between_points_returns_a_double() {
         DistancedSort distancedSort = new DistancedSort(/*interObjectDelay=*/0, /*reversed=*/false);
@@ -0,0 +1,93 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PositionStrategyTest {
+
+    @Test
+    public void test_top_left_is_rounded() {
+        View mockView = mockView(/*x=*/10.4f, /*y=*/20.6f, /*width=*/100, /*height=*/50);
+        Assert.assertEquals(10f, PositionStrategy.TOP_LEFT.getX(mockView), 0);
+        Assert.assertEquals(21f, PositionStrategy.TOP_LEFT.getY(mockView), 0);
+    }
+
+    @Test
+    public void test_center() {
+        View mockView = mockView(/*x=*/10, /*y=*/20, /*width=*/100, /*height=*/50);
+        Assert.assertEquals(60f, PositionStrategy.CENTER.getX(mockView), 0);
+        Assert.assertEquals(45f, PositionStrategy.CENTER.getY(mockView), 0);
+    }
+
+    @Test
+    public void test_fractional_writes_into_buffers() {
+        List<View> children = new ArrayList<>();
+        children.add(mockView(/*x=*/0, /*y=*/0, /*width=*/100, /*height=*/40));
+        children.add(mockView(/*x=*/200, /*y=*/100, /*width=*/20, /*height=*/20));
+        float[] x = new float[2];
+        float[] y = new float[2];
+
+        PositionStrategy.fractional(/*fractionX=*/1, /*fractionY=*/0.5f).getPositions(children, x, y);
+
+        Assert.assertArrayEquals(new float[]{100, 220}, x, 0);
+        Assert.assertArrayEquals(new float[]{20, 110}, y, 0);
+    }
+
+    @Test
+    public void test_center_orders_children_of_different_sizes() {
+        // The large card starts closer to the corner, but its center is further away.
+        View largeCard = mockView(/*x=*/0, /*y=*/0, /*width=*/400, /*height=*/400);
+        View smallCard = mockView(/*x=*/10, /*y=*/10, /*width=*/10, /*height=*/10);
+        List<View> children = new ArrayList<>();
+        children.add(largeCard);
+        children.add(smallCard);
+
+        SortFunction sortFunction = new CorneredSort(/*interObjectDelay=*/0, /*reversed=*/false,
+                CorneredSort.Corner.TOP_LEFT).setPositionStrategy(PositionStrategy.CENTER);
+        sortFunction.sortChildren(Mockito.mock(ViewGroup.class), children);
+
+        Assert.assertSame(smallCard, children.get(0));
+        Assert.assertSame(largeCard, children.get(1));
+    }
+
+    private static View mockView(float x, float y, int width, int height) {
+        View mockView = Mockito.mock(View.class);
+        Mockito.when(mockView.getX()).thenReturn(x);
+        Mockito.when(mockView.getY()).thenReturn(y);
+        Mockito.when(mockView.getWidth()).thenReturn(width);
+        Mockito.when(mockView.getHeight()).thenReturn(height);
+        return mockView;
+    }
+
+}
@@ -35,6 +35,8 @@ import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -242,6 +244,54 @@ public class RadialSortTest {
         assertEquals(-2, resultViews.get(2).getTimeOffset());
     }
 
+    @Test
+    public void test_sort_with_time_offsets_calls_an_overridden_sort_children() {
+        RadialSort reversingSort = new RadialSort(/*interObjectDelay=*/1,
+                /*reversed=*/false,
+                RadialSort.Position.TOP_LEFT) {
+            @Override
+            public void sortChildren(ViewGroup parent, List<View> children) {
+                super.sortChildren(parent, children);
+                Collections.reverse(children);
+            }
+        };
+        List<View> children = new ArrayList<>(mockChildren);
+
+        List<SpruceTimedView> resultViews = reversingSort.sortWithTimeOffsets(mockParent, children);
+
+        assertEquals(mockChildren.get(2), children.get(0));
+        assertEquals(mockChildren.get(0), children.get(2));
+        assertEquals(mockChildren.get(2), resultViews.get(0).getView());
+        assertEquals(0, resultViews.get(0).getTimeOffset());
+        assertEquals(mockChildren.get(0), resultViews.get(2).getView());
+        assertEquals(2, resultViews.get(2).getTimeOffset());
+    }
+
+    @Test
+    public void test_sort_with_time_offsets_calls_an_overridden_get_view_list() {
+        RadialSort constantSort = new RadialSort(/*interObjectDelay=*/1,
+                /*reversed=*/true,
+                RadialSort.Position.TOP_LEFT) {
+            @Override
+            public List<SpruceTimedView> getViewListWithTimeOffsets(ViewGroup parent,
+                                                                    List<View> children) {
+                List<SpruceTimedView> timedViews = new ArrayList<>();
+                for (View child : children) {
+                    timedViews.add(new SpruceTimedView(child, 42));
+                }
+                return timedViews;
+            }
+        };
+        List<View> children = new ArrayList<>(mockChildren);
+
+        List<SpruceTimedView> resultViews = constantSort.sortWithTimeOffsets(mockParent, children);
+
+        assertEquals(mockChildren.get(2), resultViews.get(0).getView());
+        for (SpruceTimedView timedView : resultViews) {
+            assertEquals(42, timedView.getTimeOffset());
+        }
+    }
+
     private void setupMockChildrenForPoint(float xReturn, float yReturn) {
         for (int i = 0; i < 3; i++) {
             View mockView = Mockito.mock(View.class);
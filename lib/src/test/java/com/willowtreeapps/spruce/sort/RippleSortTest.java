@@ -0,0 +1,117 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class RippleSortTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ViewGroup mockParent;
+    private List<View> mockChildren;
+
+    @Before
+    public void setup() {
+        mockParent = Mockito.mock(ViewGroup.class);
+        mockChildren = new ArrayList<>();
+        // A row of five 10 x 10 views, 100 apart.
+        for (int i = 0; i < 5; i++) {
+            View mockView = Mockito.mock(View.class);
+            Mockito.when(mockView.getX()).thenReturn(100f * i);
+            Mockito.when(mockView.getWidth()).thenReturn(10);
+            Mockito.when(mockView.getHeight()).thenReturn(10);
+            mockChildren.add(mockView);
+        }
+    }
+
+    @Test
+    public void test_children_ripple_out_from_the_point() {
+        List<View> children = new ArrayList<>(mockChildren);
+        List<SpruceTimedView> resultViews = new RippleSort(/*duration=*/200, /*reversed=*/false,
+                /*x=*/205, /*y=*/5).sortWithTimeOffsets(mockParent, children);
+
+        Assert.assertSame(mockChildren.get(2), resultViews.get(0).getView());
+        Assert.assertSame(mockChildren.get(1), resultViews.get(1).getView());
+        Assert.assertSame(mockChildren.get(3), resultViews.get(2).getView());
+        Assert.assertSame(mockChildren.get(2), children.get(0));
+        Assert.assertEquals(0, resultViews.get(0).getTimeOffset());
+        Assert.assertEquals(100, resultViews.get(1).getTimeOffset());
+        Assert.assertEquals(200, resultViews.get(4).getTimeOffset());
+    }
+
+    @Test
+    public void test_reversed_ripple_ends_at_the_point() {
+        List<SpruceTimedView> resultViews = new RippleSort(/*duration=*/200, /*reversed=*/true,
+                /*x=*/205, /*y=*/5).sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+
+        Assert.assertSame(mockChildren.get(2), resultViews.get(0).getView());
+        Assert.assertEquals(200, resultViews.get(0).getTimeOffset());
+        Assert.assertEquals(0, resultViews.get(4).getTimeOffset());
+    }
+
+    @Test
+    public void test_ripple_from_touch() {
+        MotionEvent event = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, /*x=*/405, /*y=*/5, 0);
+        List<SpruceTimedView> resultViews = new RippleSort(/*duration=*/200, /*reversed=*/false, event)
+                .sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+        Assert.assertSame(mockChildren.get(4), resultViews.get(0).getView());
+    }
+
+    @Test
+    public void test_retarget_matches_a_new_sort() {
+        RippleSort rippleSort = new RippleSort(/*duration=*/200, /*reversed=*/false, /*x=*/5, /*y=*/5);
+        rippleSort.sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+        List<SpruceTimedView> retargetedViews = rippleSort.retarget(/*x=*/305, /*y=*/5);
+
+        List<SpruceTimedView> expectedViews = new RippleSort(/*duration=*/200, /*reversed=*/false,
+                /*x=*/305, /*y=*/5).sortWithTimeOffsets(mockParent, new ArrayList<>(mockChildren));
+        Assert.assertEquals(expectedViews.size(), retargetedViews.size());
+        for (int i = 0; i < expectedViews.size(); i++) {
+            Assert.assertSame(expectedViews.get(i).getView(), retargetedViews.get(i).getView());
+            Assert.assertEquals(expectedViews.get(i).getTimeOffset(), retargetedViews.get(i).getTimeOffset());
+        }
+    }
+
+    @Test
+    public void test_retarget_before_sorting() {
+        expectedException.expect(IllegalStateException.class);
+        new RippleSort(/*duration=*/200, /*reversed=*/false, /*x=*/0, /*y=*/0).retarget(10, 10);
+    }
+
+}
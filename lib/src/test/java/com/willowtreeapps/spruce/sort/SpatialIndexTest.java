@@ -0,0 +1,114 @@
+/*
+ *     Spruce
+ *
+ *     Copyright (c) 2017 WillowTree, Inc.
+ *     Permission is hereby granted, free of charge, to any person obtaining a copy
+ *     of this software and associated documentation files (the "Software"), to deal
+ *     in the Software without restriction, including without limitation the rights
+ *     to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *     copies of the Software, and to permit persons to whom the Software is
+ *     furnished to do so, subject to the following conditions:
+ *     The above copyright notice and this permission notice shall be included in
+ *     all copies or substantial portions of the Software.
+ *     THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *     IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *     FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *     AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *     LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *     OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *     THE SOFTWARE.
+ *
+ */
+package com.willowtreeapps.spruce.sort;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpatialIndexTest {
+
+    private ViewGroup mockParent;
+    private List<View> mockChildren;
+
+    @Before
+    public void setup() {
+        mockParent = Mockito.mock(ViewGroup.class);
+        mockChildren = new ArrayList<>();
+        // A 5 x 4 grid of 20 x 10 views, 100 apart.
+        for (int i = 0; i < 20; i++) {
+            View mockView = Mockito.mock(View.class);
+            Mockito.when(mockView.getX()).thenReturn(100f * (i % 5));
+            Mockito.when(mockView.getY()).thenReturn(100f * (i / 5));
+            Mockito.when(mockView.getWidth()).thenReturn(20);
+            Mockito.when(mockView.getHeight()).thenReturn(10);
+            mockChildren.add(mockView);
+        }
+    }
+
+    @Test
+    public void test_positions_are_child_centers() {
+        SpatialIndex spatialIndex = SpatialIndex.build(mockParent, mockChildren);
+        Assert.assertEquals(110f, spatialIndex.getX(1), 0);
+        Assert.assertEquals(5f, spatialIndex.getY(1), 0);
+        Assert.assertSame(mockChildren.get(1), spatialIndex.getView(1));
+    }
+
+    @Test
+    public void test_nearest() {
+        SpatialIndex spatialIndex = SpatialIndex.build(mockParent, mockChildren);
+        Assert.assertEquals(7, spatialIndex.nearest(/*x=*/215, /*y=*/120));
+        Assert.assertEquals(0, spatialIndex.nearest(/*x=*/-500, /*y=*/-500));
+        Assert.assertEquals(-1, SpatialIndex.build(mockParent, new ArrayList<View>()).nearest(0, 0));
+    }
+
+    @Test
+    public void test_k_nearest_are_closest_first() {
+        SpatialIndex spatialIndex = SpatialIndex.build(mockParent, mockChildren);
+        // Equally close children are ordered by index.
+        Assert.assertArrayEquals(new int[]{7, 2, 6, 8, 12},
+                spatialIndex.nearest(/*x=*/210, /*y=*/105, /*k=*/5));
+        Assert.assertEquals(20, spatialIndex.nearest(0, 0, /*k=*/50).length);
+    }
+
+    @Test
+    public void test_within_radius() {
+        SpatialIndex spatialIndex = SpatialIndex.build(mockParent, mockChildren);
+        Assert.assertArrayEquals(new int[]{0, 1, 5},
+                spatialIndex.withinRadius(/*x=*/10, /*y=*/5, /*radius=*/100));
+        Assert.assertEquals(0, spatialIndex.withinRadius(/*x=*/60, /*y=*/55, /*radius=*/10).length);
+    }
+
+    @Test
+    public void test_sort_by_distance() {
+        SpatialIndex spatialIndex = SpatialIndex.build(mockParent, mockChildren);
+        int[] order = spatialIndex.sortByDistance(/*x=*/410, /*y=*/305);
+        Assert.assertEquals(20, order.length);
+        Assert.assertEquals(19, order[0]);
+        Assert.assertEquals(0, order[19]);
+        for (int i = 1; i < order.length; i++) {
+            Assert.assertTrue(spatialIndex.distance(order[i - 1], 410, 305)
+                    <= spatialIndex.distance(order[i], 410, 305));
+        }
+    }
+
+    @Test
+    public void test_sort_function_reuses_index_until_layout_changes() {
+        SortFunction sortFunction = new DefaultSort(/*interObjectDelay=*/0);
+        SpatialIndex spatialIndex = sortFunction.getSpatialIndex(mockParent, mockChildren);
+        Assert.assertSame(spatialIndex, sortFunction.getSpatialIndex(mockParent, mockChildren));
+
+        Mockito.when(mockChildren.get(3).getY()).thenReturn(50f);
+        Assert.assertNotSame(spatialIndex, sortFunction.getSpatialIndex(mockParent, mockChildren));
+    }
+
+}